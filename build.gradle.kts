@@ -1,6 +1,7 @@
 plugins {
     id("java")
     kotlin("jvm") version "2.2.21"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "dev.nautchkafe.animation"
@@ -20,10 +21,16 @@ dependencies {
     // fp stuff
     implementation("io.vavr:vavr:0.10.6")
 
+    // cache stuff
+    implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
+
     // minecraft server-side software stuff
     compileOnly("io.papermc.paper:paper-api:1.20.1-R0.1-SNAPSHOT")
     compileOnly("org.spigotmc:spigot-api:1.20.1-experimental-SNAPSHOT")
 
+    // config stuff
+    implementation("org.snakeyaml:snakeyaml-engine:2.8")
+
     // kyori stuff
     implementation("net.kyori.adventure:adventure-api:4.11.0")
     implementation("net.kyori:adventure-platform-bukkit:4.4.0")
@@ -34,8 +41,118 @@ dependencies {
     testImplementation("org.junit.jupiter:junit-jupiter")
     testImplementation("org.mockito:mockito-core:5.17.0")
     testImplementation("org.mockito:mockito-inline:5.2.0")
+
+    // benchmarks stuff
+    jmhImplementation("io.papermc.paper:paper-api:1.20.1-R0.1-SNAPSHOT")
 }
 
 tasks.test {
     useJUnitPlatform()
 }
+
+val jmhBaseline = layout.projectDirectory.file("src/jmh/baseline.json")
+val jmhResults = layout.buildDirectory.file("results/jmh/results.json")
+
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    resultsFile.set(jmhResults)
+}
+
+tasks.register("jmhCompareBaseline") {
+    group = "benchmark"
+    description = "Compares the latest JMH results against src/jmh/baseline.json. Tolerance: -PjmhTolerance=0.10"
+    dependsOn("jmh")
+
+    doLast {
+        val baselineFile = jmhBaseline.asFile
+        if (!baselineFile.exists()) {
+            logger.warn("No JMH baseline at ${baselineFile.path}, run jmhSaveBaseline to create one.")
+            return@doLast
+        }
+
+        val tolerance = (findProperty("jmhTolerance") as String?)?.toDouble() ?: 0.10
+        val baseline = readJmhScores(baselineFile)
+        val current = readJmhScores(jmhResults.get().asFile)
+        val regressions = mutableListOf<String>()
+
+        current.forEach { (key, score) ->
+            val previous = baseline[key] ?: return@forEach
+            val change = if (previous.score == 0.0) 0.0 else (score.score - previous.score) / previous.score
+            val regressed = if (score.higherIsBetter) change < -tolerance else change > tolerance
+            val line = "%s: %.3f -> %.3f %s (%+.1f%%)".format(key, previous.score, score.score, score.unit, change * 100)
+
+            if (regressed) regressions += line else logger.lifecycle(line)
+        }
+
+        if (regressions.isNotEmpty()) {
+            throw GradleException("JMH regressions beyond ${tolerance * 100}%:\n" + regressions.joinToString("\n"))
+        }
+    }
+}
+
+tasks.register<Copy>("jmhSaveBaseline") {
+    group = "benchmark"
+    description = "Stores the latest JMH results as src/jmh/baseline.json."
+    from(jmhResults)
+    into(jmhBaseline.asFile.parentFile)
+    rename { jmhBaseline.asFile.name }
+}
+
+val checkTickAllocation = tasks.register<JavaExec>("checkTickAllocation") {
+    group = "verification"
+    description = "Fails if a steady-state engine tick allocates, as measured by the thread allocation counter."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("dev.nautchkafe.animation.KeyframeTickAllocationCheck")
+}
+
+tasks.check {
+    dependsOn(checkTickAllocation)
+}
+
+tasks.register<JavaExec>("simulateLoad") {
+    group = "benchmark"
+    description = "Runs the headless load simulation and writes build/reports/simulation/keyframe-load.txt. " +
+            "Options: -PsimAnimations=2000 -PsimSeconds=60 -PsimWarmup=10 -PsimTps=20 -PsimSeed=1"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("dev.nautchkafe.animation.KeyframeLoadSimulation")
+    jvmArgs("-Xms1g", "-Xmx1g")
+
+    val report = layout.buildDirectory.file("reports/simulation/keyframe-load.txt")
+    outputs.file(report)
+    outputs.upToDateWhen { false }
+
+    args(
+        "--animations=${findProperty("simAnimations") ?: 2000}",
+        "--seconds=${findProperty("simSeconds") ?: 60}",
+        "--warmup=${findProperty("simWarmup") ?: 10}",
+        "--tps=${findProperty("simTps") ?: 20}",
+        "--seed=${findProperty("simSeed") ?: 1}",
+        "--output=${report.get().asFile.path}"
+    )
+}
+
+data class JmhScore(val score: Double, val unit: String, val higherIsBetter: Boolean)
+
+@Suppress("UNCHECKED_CAST")
+fun readJmhScores(file: File): Map<String, JmhScore> {
+    val runs = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+    val scores = linkedMapOf<String, JmhScore>()
+
+    runs.forEach { run ->
+        val params = (run["params"] as Map<String, Any?>?).orEmpty().entries.joinToString(",") { "${it.key}=${it.value}" }
+        val key = "${run["benchmark"]}($params)"
+        val primary = run["primaryMetric"] as Map<String, Any?>
+        val throughput = run["mode"] == "thrpt"
+
+        scores[key] = JmhScore((primary["score"] as Number).toDouble(), primary["scoreUnit"] as String, throughput)
+
+        val secondary = (run["secondaryMetrics"] as Map<String, Map<String, Any?>>?).orEmpty()
+        secondary["·gc.alloc.rate.norm"]?.let {
+            scores["$key ·gc.alloc.rate.norm"] = JmhScore((it["score"] as Number).toDouble(), it["scoreUnit"] as String, false)
+        }
+    }
+
+    return scores
+}
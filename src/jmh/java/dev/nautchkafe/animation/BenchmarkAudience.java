@@ -0,0 +1,34 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.title.Title;
+import net.kyori.adventure.title.TitlePart;
+
+/**
+ * An {@link Audience} stub that only counts what would have been sent, so benchmarks measure the
+ * animation pipeline rather than the network layer.
+ */
+final class BenchmarkAudience implements Audience {
+
+    private long titles;
+    private long titleParts;
+
+    @Override
+    public void showTitle(final Title title) {
+        titles++;
+    }
+
+    @Override
+    public <T> void sendTitlePart(final TitlePart<T> part, final T value) {
+        titleParts++;
+    }
+
+    /**
+     * Returns the number of titles and title parts received so far.
+     *
+     * @return the received packet count.
+     */
+    long received() {
+        return titles + titleParts;
+    }
+}
@@ -0,0 +1,76 @@
+package dev.nautchkafe.animation;
+
+import dev.nautchkafe.animation.impl.CountdownAnimation;
+import dev.nautchkafe.animation.impl.CustomCharacterAnimation;
+import dev.nautchkafe.animation.impl.LoadingProgressAnimation;
+import dev.nautchkafe.animation.impl.SpinningSlashAnimation;
+import dev.nautchkafe.animation.impl.WobbleTextAnimation;
+import io.vavr.collection.List;
+import net.kyori.adventure.title.Title;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@code frames()} of every built-in animation in {@code impl}, and compiling every frame of its sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameGenerationBenchmark {
+
+    @Param({"countdown", "custom-character", "loading-progress", "spinning-slash", "wobble-text"})
+    private String animation;
+
+    @Param({"100", "1000"})
+    private int cycles;
+
+    private KeyframeSource source;
+    private Title.Times times;
+
+    @Setup
+    public void setUp() {
+        final KeyframeAnimationMessageConfig config = new KeyframeAnimationMessageConfig(
+                "<gold>Title", "<gray>Subtitle", "#", cycles);
+
+        source = switch (animation) {
+            case "countdown" -> new CountdownAnimation(config, null);
+            case "custom-character" -> new CustomCharacterAnimation(config, null);
+            case "loading-progress" -> new LoadingProgressAnimation(config, null);
+            case "spinning-slash" -> new SpinningSlashAnimation(config, null, new KeyframeMapper());
+            case "wobble-text" -> new WobbleTextAnimation(config, null);
+            default -> throw new IllegalArgumentException("Unknown animation: " + animation);
+        };
+        times = KeyframeCompiler.times(Duration.ofMillis(250));
+    }
+
+    @Benchmark
+    public List<Keyframe> frames() {
+        return source.frames(cycles).get();
+    }
+
+    @Benchmark
+    public CompiledKeyframe[] compiledFrames() {
+        final FrameSequence sequence = source.sequence(cycles);
+        final CompiledKeyframe[] compiled = new CompiledKeyframe[sequence.size()];
+        for (int index = 0; index < compiled.length; index++) {
+            compiled[index] = KeyframeCompiler.compile(sequence, index, times);
+        }
+
+        return compiled;
+    }
+}
@@ -0,0 +1,68 @@
+package dev.nautchkafe.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one engine tick with thousands of simulated animations, driven by a manual clock so every
+ * invocation advances the engine by exactly one server tick.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyframeAnimationEngineBenchmark {
+
+    private static final long SERVER_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int FRAME_COUNT = 1_000_000;
+
+    @Param({"1000", "10000"})
+    private int animations;
+
+    private KeyframeAnimationEngine engine;
+    private long now;
+
+    @Setup
+    public void setUp() {
+        engine = KeyframeAnimationEngine.headless(() -> now);
+
+        final Keyframe[] cycle = {
+                new Keyframe("<gold>Loading", "<gray>."),
+                new Keyframe("<gold>Loading", "<gray>.."),
+                new Keyframe("<gold>Loading", "<gray>...")
+        };
+        final CompiledFrameSequence frames = KeyframeCompiler.compile(
+                FrameSequence.generate(FRAME_COUNT, index -> cycle[index % cycle.length]), Duration.ofMillis(50));
+
+        for (int index = 0; index < animations; index++) {
+            final KeyframeAudience audience = KeyframeAudience.forwarding(new BenchmarkAudience());
+            final Duration tickDelay = Duration.ofMillis(50L * (1 + index % 4));
+
+            engine.enqueue(KeyframeAnimationTask.create(audience, KeyframeChannel.TITLE, "benchmark", KeyframePriority.NORMAL, frames,
+                    KeyframeRenderer.miniMessageRenderer(), tickDelay));
+        }
+
+        engine.tick();
+    }
+
+    @Benchmark
+    public int tick() {
+        now += SERVER_TICK_NANOS;
+        engine.tick();
+        return engine.activeAnimations();
+    }
+}
@@ -0,0 +1,39 @@
+package dev.nautchkafe.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures advancing the playback cursor of a {@link KeyframeAnimationState}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyframeAnimationStateBenchmark {
+
+    private KeyframeAnimationState state;
+
+    @Setup
+    public void setUp() {
+        state = new KeyframeAnimationState(FrameSequence.UNBOUNDED);
+    }
+
+    @Benchmark
+    public int advance() {
+        state.nextFrame();
+        return state.currentIndex();
+    }
+}
@@ -0,0 +1,311 @@
+package dev.nautchkafe.animation;
+
+import dev.nautchkafe.animation.impl.CountdownAnimation;
+import dev.nautchkafe.animation.impl.CustomCharacterAnimation;
+import dev.nautchkafe.animation.impl.LoadingProgressAnimation;
+import dev.nautchkafe.animation.impl.SpinningSlashAnimation;
+import dev.nautchkafe.animation.impl.WobbleTextAnimation;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A headless load simulation of a server full of players watching the built-in animations.
+ *
+ * <p>Every built-in animation type is played to the given number of {@link SimulatedPlayer}s at once on a
+ * headless engine. A virtual clock advances by one server tick per loop, and each player restarts an animation as
+ * soon as the previous one ended, so the load stays constant. Animations start spread over the first seconds
+ * and pick their length and tick delay from a seeded random, so two runs with the same settings play exactly the
+ * same frames.</p>
+ *
+ * <p>After a warm-up the simulation measures the wall time and the allocation of every engine tick, the frame
+ * lateness the engine reports against the virtual clock, and the packets each player received per simulated
+ * second. The counts, frames and lateness are reproducible; the tick time and allocation depend on the machine,
+ * so only reports from the same machine should be compared.</p>
+ *
+ * <pre>
+ * {@code
+ * ./gradlew simulateLoad -PsimAnimations=2000 -PsimSeconds=60
+ * }
+ * </pre>
+ */
+public final class KeyframeLoadSimulation {
+
+    private static final int[] CYCLES = {10, 20, 40};
+    private static final long[] TICK_DELAYS_MILLIS = {50L, 100L, 200L};
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final int START_SPREAD_SECONDS = 2;
+
+    private final int animationsPerType;
+    private final int warmupSeconds;
+    private final int seconds;
+    private final double tps;
+    private final long seed;
+    private final long tickNanos;
+    private final Random random;
+    private final KeyframeAnimationEngine engine;
+    private final InMemoryKeyframeMetricsSink sink;
+    private final java.util.List<SimulatedPlayer> players;
+    private final Map<String, CompiledFrameSequence[]> variantsByType;
+    private long now;
+
+    private KeyframeLoadSimulation(final int animationsPerType, final int warmupSeconds, final int seconds,
+                                   final double tps, final long seed) {
+        this.animationsPerType = animationsPerType;
+        this.warmupSeconds = warmupSeconds;
+        this.seconds = seconds;
+        this.tps = tps;
+        this.seed = seed;
+        this.tickNanos = (long) (TimeUnit.SECONDS.toNanos(1) / tps);
+        this.random = new Random(seed);
+        this.engine = KeyframeAnimationEngine.headless(() -> now);
+        this.sink = new InMemoryKeyframeMetricsSink(warmupSeconds + seconds + 1);
+        this.players = new ArrayList<>();
+        this.variantsByType = compileVariants();
+        engine.metricsSink(sink, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Runs the simulation and prints its report, also writing it to a file if requested.
+     *
+     * @param args options as {@code --name=value}: {@code animations} per type (2000), {@code seconds} measured (60),
+     *             {@code warmup} seconds (10), {@code tps} (20), {@code seed} (1) and an {@code output} file.
+     * @throws IOException if the report cannot be written.
+     */
+    public static void main(final String[] args) throws IOException {
+        final java.util.Map<String, String> options = new java.util.HashMap<>();
+        for (final String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Options must look like --name=value: " + arg);
+            }
+
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        final KeyframeLoadSimulation simulation = new KeyframeLoadSimulation(
+                Integer.parseInt(options.getOrDefault("animations", "2000")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                Integer.parseInt(options.getOrDefault("seconds", "60")),
+                Double.parseDouble(options.getOrDefault("tps", "20")),
+                Long.parseLong(options.getOrDefault("seed", "1")));
+
+        final String report = simulation.run();
+        System.out.print(report);
+
+        final String output = options.get("output");
+        if (output != null) {
+            final Path file = Path.of(output);
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+
+            Files.writeString(file, report, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Plays the animations through the warm-up and the measured seconds.
+     *
+     * @return the report of the measured seconds.
+     */
+    private String run() {
+        final int ticksPerSecond = (int) Math.round(tps);
+        final int warmupTicks = warmupSeconds * ticksPerSecond;
+        final int measuredTicks = seconds * ticksPerSecond;
+        final java.util.List<java.util.List<Runnable>> startsByTick = scheduleStarts(ticksPerSecond);
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long[] tickTimes = new long[measuredTicks];
+        final long[] allocations = new long[measuredTicks];
+
+        for (int tick = 0; tick < warmupTicks + measuredTicks; tick++) {
+            if (tick == warmupTicks) {
+                players.forEach(SimulatedPlayer::resetPackets);
+                sink.clear();
+            }
+
+            if (tick < startsByTick.size()) {
+                startsByTick.get(tick).forEach(Runnable::run);
+            }
+
+            now += tickNanos;
+            final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            final long tickStart = System.nanoTime();
+            engine.tick();
+            final long tickEnd = System.nanoTime();
+            final long allocatedAfter = threads.getCurrentThreadAllocatedBytes();
+
+            if (tick >= warmupTicks) {
+                tickTimes[tick - warmupTicks] = tickEnd - tickStart;
+                allocations[tick - warmupTicks] = allocatedAfter - allocatedBefore;
+            }
+        }
+
+        return report(measuredTicks, tickTimes, allocations);
+    }
+
+    /**
+     * Creates the players of every animation type and spreads their first dispatch over the first seconds.
+     *
+     * @param ticksPerSecond the number of ticks per simulated second.
+     * @return the starts to run before each tick.
+     */
+    private java.util.List<java.util.List<Runnable>> scheduleStarts(final int ticksPerSecond) {
+        final int spreadTicks = Math.max(1, Math.min(warmupSeconds, START_SPREAD_SECONDS) * ticksPerSecond);
+        final java.util.List<java.util.List<Runnable>> startsByTick = new ArrayList<>(spreadTicks);
+        for (int tick = 0; tick < spreadTicks; tick++) {
+            startsByTick.add(new ArrayList<>());
+        }
+
+        int typeIndex = 0;
+        for (final String type : variantsByType.keySet()) {
+            for (int index = 0; index < animationsPerType; index++) {
+                final SimulatedPlayer player = new SimulatedPlayer(new UUID(typeIndex, index));
+                players.add(player);
+                startsByTick.get(random.nextInt(spreadTicks)).add(() -> play(player, type));
+            }
+
+            typeIndex++;
+        }
+
+        return startsByTick;
+    }
+
+    /**
+     * Dispatches a random variant of an animation type to a player and plays the next one once it ended.
+     *
+     * @param player the receiving player.
+     * @param type the animation type.
+     */
+    private void play(final SimulatedPlayer player, final String type) {
+        final int variant = random.nextInt(CYCLES.length * TICK_DELAYS_MILLIS.length);
+        final KeyframeAnimationTask task = KeyframeAnimationTask.create(player, KeyframeChannel.TITLE, type,
+                KeyframePriority.NORMAL, variantsByType.get(type).get()[variant], KeyframeRenderer.miniMessageRenderer(),
+                Duration.ofMillis(TICK_DELAYS_MILLIS[variant % TICK_DELAYS_MILLIS.length]));
+
+        task.completion().thenRun(() -> play(player, type));
+        engine.enqueue(task);
+    }
+
+    /**
+     * Compiles every combination of length and tick delay of the built-in animations once, the way a dispatcher
+     * shares its compiled frames between dispatches.
+     *
+     * @return the compiled variants per animation type.
+     */
+    private static Map<String, CompiledFrameSequence[]> compileVariants() {
+        final KeyframeAnimationMessageConfig config = new KeyframeAnimationMessageConfig(
+                "<gold>Welcome", "<gray>Loading", "#", CYCLES[CYCLES.length - 1]);
+
+        final Map<String, KeyframeSource> sources = LinkedHashMap.of(
+                "countdown", new CountdownAnimation(config, null),
+                "custom-character", new CustomCharacterAnimation(config, null),
+                "loading-progress", new LoadingProgressAnimation(config, null),
+                "spinning-slash", new SpinningSlashAnimation(config, null, new KeyframeMapper()),
+                "wobble-text", new WobbleTextAnimation(config, null));
+
+        return sources.mapValues(source -> {
+            final CompiledFrameSequence[] variants = new CompiledFrameSequence[CYCLES.length * TICK_DELAYS_MILLIS.length];
+            for (int variant = 0; variant < variants.length; variant++) {
+                variants[variant] = KeyframeCompiler.compile(source.sequence(CYCLES[variant / TICK_DELAYS_MILLIS.length]),
+                        Duration.ofMillis(TICK_DELAYS_MILLIS[variant % TICK_DELAYS_MILLIS.length]));
+            }
+
+            return variants;
+        });
+    }
+
+    /**
+     * Builds the report of the measured seconds, one {@code name: value} line per figure so reports can be diffed.
+     *
+     * @param measuredTicks the number of measured ticks.
+     * @param tickTimes the wall time of every measured tick.
+     * @param allocations the bytes allocated by every measured tick.
+     * @return the report.
+     */
+    private String report(final int measuredTicks, final long[] tickTimes, final long[] allocations) {
+        final List<KeyframeMetricsSnapshot> snapshots = sink.snapshots();
+        final KeyframeLatencyHistogram lateness = new KeyframeLatencyHistogram();
+        snapshots.forEach(snapshot -> lateness.addAll(snapshot.frameLateness()));
+
+        final double simulatedSeconds = measuredTicks * (double) tickNanos / TimeUnit.SECONDS.toNanos(1);
+        final double[] packetsPerSecond = new double[players.size()];
+        for (int index = 0; index < packetsPerSecond.length; index++) {
+            packetsPerSecond[index] = players.get(index).packets() / simulatedSeconds;
+        }
+
+        final StringBuilder report = new StringBuilder();
+        line(report, "# keyframe load simulation");
+        line(report, "# java " + System.getProperty("java.version") + ", " + System.getProperty("os.name") + ", "
+                + Runtime.getRuntime().availableProcessors() + " cpus");
+        line(report, "settings.animations-per-type: " + animationsPerType);
+        line(report, "settings.animation-types: " + variantsByType.keySet().mkString(","));
+        line(report, "settings.players: " + players.size());
+        line(report, "settings.tps: " + format(tps));
+        line(report, "settings.warmup-seconds: " + warmupSeconds);
+        line(report, "settings.measured-seconds: " + seconds);
+        line(report, "settings.seed: " + seed);
+
+        Arrays.sort(tickTimes);
+        for (final double percentile : PERCENTILES) {
+            line(report, "tick-time.p" + format(percentile) + "-micros: " + format(percentile(tickTimes, percentile) / 1_000.0));
+        }
+        line(report, "tick-time.max-micros: " + format(tickTimes[tickTimes.length - 1] / 1_000.0));
+
+        line(report, "allocation.mean-bytes-per-tick: " + format(Arrays.stream(allocations).average().orElse(0)));
+        Arrays.sort(allocations);
+        line(report, "allocation.p50-bytes-per-tick: " + percentile(allocations, 50.0));
+        line(report, "allocation.p99-bytes-per-tick: " + percentile(allocations, 99.0));
+        line(report, "allocation.max-bytes-per-tick: " + allocations[allocations.length - 1]);
+
+        line(report, "frames.rendered: " + snapshots.map(KeyframeMetricsSnapshot::framesRendered).sum().longValue());
+        line(report, "frames.lateness-p50-millis: " + format(lateness.percentile(50.0).toNanos() / 1_000_000.0));
+        line(report, "frames.lateness-p99-millis: " + format(lateness.percentile(99.0).toNanos() / 1_000_000.0));
+        line(report, "frames.lateness-max-millis: " + format(lateness.max().toNanos() / 1_000_000.0));
+
+        Arrays.sort(packetsPerSecond);
+        line(report, "packets.per-player-per-second-mean: " + format(Arrays.stream(packetsPerSecond).average().orElse(0)));
+        line(report, "packets.per-player-per-second-p99: " + format(percentile(packetsPerSecond, 99.0)));
+        line(report, "packets.per-player-per-second-max: " + format(packetsPerSecond[packetsPerSecond.length - 1]));
+
+        line(report, "animations.completed: " + snapshots.map(KeyframeMetricsSnapshot::completedAnimations).sum().longValue());
+        line(report, "animations.cancelled: " + snapshots.map(KeyframeMetricsSnapshot::cancelledAnimations).sum().longValue());
+        line(report, "animations.dropped: " + snapshots.map(KeyframeMetricsSnapshot::droppedAnimations).sum().longValue());
+        line(report, "engine.load-level: " + snapshots.lastOption().map(KeyframeMetricsSnapshot::loadLevel).getOrElse(KeyframeLoadLevel.NORMAL));
+        return report.toString();
+    }
+
+    private static long percentile(final long[] sorted, final double percentile) {
+        return sorted[rank(sorted.length, percentile)];
+    }
+
+    private static double percentile(final double[] sorted, final double percentile) {
+        return sorted[rank(sorted.length, percentile)];
+    }
+
+    private static int rank(final int count, final double percentile) {
+        return Math.max(0, (int) Math.ceil(count * percentile / 100.0) - 1);
+    }
+
+    private static String format(final double value) {
+        final String formatted = String.format(Locale.ROOT, "%.3f", value);
+        return formatted.contains(".") ? formatted.replaceAll("0+$", "").replaceAll("\\.$", "") : formatted;
+    }
+
+    private static void line(final StringBuilder report, final String line) {
+        report.append(line).append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,53 @@
+package dev.nautchkafe.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the hit and miss paths of {@link KeyframeMapper#findOrCache}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyframeMapperBenchmark {
+
+    private static final String ANIMATION_ID = "benchmark";
+
+    private KeyframeMapper mapper;
+    private KeyframeAnimationMessageConfig config;
+    private int missIndex;
+
+    @Setup
+    public void setUp() {
+        mapper = new KeyframeMapper();
+        config = new KeyframeAnimationMessageConfig("<gold>Title", "<gray>Subtitle", "#", 10);
+        mapper.findOrCache(ANIMATION_ID, config, 0, KeyframeMapperBenchmark::createKeyframe);
+    }
+
+    @Benchmark
+    public Keyframe hit() {
+        return mapper.findOrCache(ANIMATION_ID, config, 0, KeyframeMapperBenchmark::createKeyframe);
+    }
+
+    @Benchmark
+    public Keyframe miss() {
+        return mapper.findOrCache(ANIMATION_ID, config, ++missIndex, KeyframeMapperBenchmark::createKeyframe);
+    }
+
+    private static Keyframe createKeyframe(final int index) {
+        return new Keyframe("<gold>Title", "<gray>Frame " + index);
+    }
+}
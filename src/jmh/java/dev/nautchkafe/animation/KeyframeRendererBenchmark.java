@@ -0,0 +1,55 @@
+package dev.nautchkafe.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link KeyframeRenderer#miniMessageRenderer()} against a stub audience, for raw keyframes that go
+ * through the compiler cache and for keyframes compiled ahead of time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyframeRendererBenchmark {
+
+    private static final Duration TICK_DELAY = Duration.ofMillis(250);
+
+    private KeyframeRenderer renderer;
+    private BenchmarkAudience audience;
+    private Keyframe keyframe;
+    private CompiledKeyframe compiledKeyframe;
+
+    @Setup
+    public void setUp() {
+        renderer = KeyframeRenderer.miniMessageRenderer();
+        audience = new BenchmarkAudience();
+        keyframe = new Keyframe("<gradient:gold:yellow><bold>Welcome</bold></gradient>", "<gray>Loading <white>42%");
+        compiledKeyframe = KeyframeCompiler.compile(keyframe, TICK_DELAY);
+    }
+
+    @Benchmark
+    public BenchmarkAudience renderKeyframe() {
+        renderer.render(audience, keyframe, TICK_DELAY);
+        return audience;
+    }
+
+    @Benchmark
+    public BenchmarkAudience renderCompiledKeyframe() {
+        renderer.render(audience, compiledKeyframe);
+        return audience;
+    }
+}
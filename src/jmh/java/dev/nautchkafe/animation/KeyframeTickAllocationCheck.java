@@ -0,0 +1,130 @@
+package dev.nautchkafe.animation;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks that a steady-state engine tick allocates nothing.
+ *
+ * <p>A headless engine plays long animations on every channel and renderer to many {@link SimulatedPlayer}s and
+ * to a forwarding audience, driven by a virtual clock. Once the animations are warm, the bytes allocated by the
+ * ticking thread are read from the {@link com.sun.management.ThreadMXBean} around every tick. The check exits
+ * with a non-zero status if any measured tick allocated, so {@code ./gradlew checkTickAllocation} fails. A
+ * bandwidth budget below what the animations send keeps frames being held back throughout. Afterwards every
+ * player quits, and the check also fails if the budget still tracks the bandwidth of any of them.</p>
+ *
+ * <p>Animations starting or ending, publishing metrics and streaming frames from a generator allocate by design
+ * and are kept out of the measured ticks: the animations outlast the check, no metrics sink is configured and all
+ * frames are compiled up front.</p>
+ */
+public final class KeyframeTickAllocationCheck {
+
+    private static final long SERVER_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int FRAME_COUNT = 100_000;
+    private static final int LOOPED_FRAME_COUNT = 7;
+    private static final int PLAYERS = 2_000;
+    private static final int BROADCASTS = 16;
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 2_000;
+    private static final int QUIT_TICKS = 20;
+    private static final int PLAYER_PACKETS_PER_SECOND = 40;
+    private static final int PLAYER_BURST_PACKETS = 10;
+    private static final int PACKETS_PER_TICK = 3_000;
+    private static final int BYTES_PER_TICK = 1_000_000;
+
+    private static long now;
+
+    private KeyframeTickAllocationCheck() {
+    }
+
+    public static void main(final String[] args) {
+        final KeyframeAnimationEngine engine = KeyframeAnimationEngine.headless(() -> now)
+                .bandwidthBudget(KeyframeBandwidthBudget.of(PLAYER_PACKETS_PER_SECOND, PLAYER_BURST_PACKETS,
+                        PACKETS_PER_TICK, BYTES_PER_TICK));
+        final Keyframe[] cycle = {
+                new Keyframe("<gold>Loading", "<gray>."),
+                new Keyframe("<gold>Loading", "<gray>.."),
+                new Keyframe("<gold>Loading", "<gray>...")
+        };
+        final FrameSequence keyframes = FrameSequence.generate(FRAME_COUNT, index -> cycle[index % cycle.length]);
+        final CompiledFrameSequence frames = KeyframeCompiler.compile(keyframes, Duration.ofMillis(50));
+        final CompiledFrameSequence loopedFrames = KeyframeTimeline.of(FrameSequence.generate(LOOPED_FRAME_COUNT,
+                        index -> cycle[index % cycle.length]), Duration.ofMillis(50))
+                .loopForever()
+                .compile()
+                .get(KeyframeChannel.TITLE)
+                .get();
+
+        final KeyframeRenderer bossBarRenderer = KeyframeRenderer.bossBarRenderer();
+        for (int index = 0; index < PLAYERS; index++) {
+            final SimulatedPlayer player = new SimulatedPlayer(new UUID(0L, index));
+            final Duration tickDelay = Duration.ofMillis(50L * (1 + index % 4));
+            final KeyframeRenderer titleRenderer = index % 2 == 0
+                    ? KeyframeRenderer.miniMessageRenderer()
+                    : KeyframeRenderer.titleSessionRenderer();
+
+            engine.enqueue(KeyframeAnimationTask.create(player, KeyframeChannel.TITLE, "title", KeyframePriority.NORMAL,
+                    index % 3 == 0 ? loopedFrames : frames, titleRenderer, tickDelay));
+            engine.enqueue(KeyframeAnimationTask.create(player, KeyframeChannel.ACTION_BAR, "action-bar", KeyframePriority.NORMAL,
+                    frames, KeyframeRenderer.actionBarRenderer(), tickDelay));
+            engine.enqueue(KeyframeAnimationTask.create(player, KeyframeChannel.BOSS_BAR, "boss-bar", KeyframePriority.NORMAL,
+                    frames, bossBarRenderer, tickDelay));
+        }
+
+        for (int index = 0; index < BROADCASTS; index++) {
+            engine.enqueue(KeyframeAnimationTask.create(KeyframeAudience.forwarding(new BenchmarkAudience()),
+                    KeyframeChannel.TITLE, "broadcast", KeyframePriority.NORMAL, frames,
+                    KeyframeRenderer.miniMessageRenderer(), Duration.ofMillis(100)));
+        }
+
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            now += SERVER_TICK_NANOS;
+            engine.tick();
+        }
+
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatingTicks = 0;
+        long totalBytes = 0;
+        long maxBytes = 0;
+
+        for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+            now += SERVER_TICK_NANOS;
+            final long before = threads.getCurrentThreadAllocatedBytes();
+            engine.tick();
+            final long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+
+            if (bytes > 0) {
+                allocatingTicks++;
+                totalBytes += bytes;
+                maxBytes = Math.max(maxBytes, bytes);
+            }
+        }
+
+        System.out.println("animations: " + engine.activeAnimations());
+        System.out.println("measured ticks: " + MEASURED_TICKS);
+        System.out.println("allocating ticks: " + allocatingTicks);
+        System.out.println("allocated bytes: " + totalBytes + " (max " + maxBytes + " per tick)");
+
+        if (allocatingTicks > 0) {
+            System.err.println("Steady-state engine ticks allocated " + totalBytes + " bytes");
+            System.exit(1);
+        }
+
+        for (int index = 0; index < PLAYERS; index++) {
+            engine.playerQuit(new UUID(0L, index));
+        }
+
+        for (int tick = 0; tick < QUIT_TICKS; tick++) {
+            now += SERVER_TICK_NANOS;
+            engine.tick();
+        }
+
+        System.out.println("players tracked after quitting: " + engine.bandwidthTrackedPlayers());
+        if (engine.bandwidthTrackedPlayers() > 0) {
+            System.err.println("The bandwidth budget still tracks " + engine.bandwidthTrackedPlayers() + " players who quit");
+            System.exit(1);
+        }
+    }
+}
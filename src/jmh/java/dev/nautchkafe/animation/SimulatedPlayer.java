@@ -0,0 +1,106 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.control.Option;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import net.kyori.adventure.title.TitlePart;
+
+import java.util.UUID;
+
+/**
+ * A fake player for the {@link KeyframeLoadSimulation}. It stands in for a connected player on both sides of
+ * the engine: as the {@link KeyframeAudience} the engine tracks per player id, and as the Adventure
+ * {@link Audience} the renderers send to, which only counts the packets a real player would have received.
+ */
+final class SimulatedPlayer implements Audience, KeyframeAudience {
+
+    private final UUID id;
+    private final Option<UUID> owner;
+    private long packets;
+
+    /**
+     * @param id the unique id of the simulated player.
+     */
+    SimulatedPlayer(final UUID id) {
+        this.id = id;
+        this.owner = Option.some(id);
+    }
+
+    @Override
+    public boolean isActive() {
+        return true;
+    }
+
+    @Override
+    public void render(final KeyframeRenderer renderer, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        KeyframeAudience.renderTo(this, renderer, previous, keyframe);
+    }
+
+    @Override
+    public void finish(final KeyframeRenderer renderer, final CompiledKeyframe last) {
+        renderer.renderEnd(this, last);
+    }
+
+    @Override
+    public Option<UUID> owner() {
+        return owner;
+    }
+
+    @Override
+    public void showTitle(final Title title) {
+        // times, title and subtitle
+        packets += 3;
+    }
+
+    @Override
+    public <T> void sendTitlePart(final TitlePart<T> part, final T value) {
+        packets++;
+    }
+
+    @Override
+    public void clearTitle() {
+        packets++;
+    }
+
+    @Override
+    public void sendActionBar(final Component message) {
+        packets++;
+    }
+
+    @Override
+    public void showBossBar(final BossBar bar) {
+        packets++;
+    }
+
+    @Override
+    public void hideBossBar(final BossBar bar) {
+        packets++;
+    }
+
+    /**
+     * Returns the unique id of the simulated player.
+     *
+     * @return the player id.
+     */
+    UUID id() {
+        return id;
+    }
+
+    /**
+     * Returns the number of packets received since the previous reset.
+     *
+     * @return the packet count.
+     */
+    long packets() {
+        return packets;
+    }
+
+    /**
+     * Discards the packets counted so far, such as those received while warming up.
+     */
+    void resetPackets() {
+        packets = 0;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.audience.Audience;
+
+import java.time.Duration;
+
+/**
+ * A {@link KeyframeRenderer} for the {@link KeyframeChannel#ACTION_BAR} channel, which shows the title
+ * of each frame above the hotbar. The subtitle and the title times are ignored.
+ */
+final class ActionBarKeyframeRenderer implements KeyframeRenderer {
+
+    static final ActionBarKeyframeRenderer INSTANCE = new ActionBarKeyframeRenderer();
+
+    private ActionBarKeyframeRenderer() {
+    }
+
+    @Override
+    public void render(final Audience audience, final Keyframe keyframe, final Duration tickDelay) {
+        render(audience, KeyframeCompiler.compile(keyframe, tickDelay));
+    }
+
+    @Override
+    public void render(final Audience audience, final CompiledKeyframe keyframe) {
+        audience.sendActionBar(keyframe.title());
+    }
+
+    @Override
+    public int estimatedPackets(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        return 1;
+    }
+
+    @Override
+    public int estimatedBytes(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        return keyframe.estimatedTitleBytes();
+    }
+
+    @Override
+    public KeyframeChannel channel() {
+        return KeyframeChannel.ACTION_BAR;
+    }
+}
@@ -0,0 +1,23 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A {@link CompiledFrameSequence} whose frames were all compiled up front into an array.
+ */
+final class ArrayCompiledFrameSequence implements CompiledFrameSequence {
+
+    private final CompiledKeyframe[] keyframes;
+
+    ArrayCompiledFrameSequence(final CompiledKeyframe[] keyframes) {
+        this.keyframes = keyframes;
+    }
+
+    @Override
+    public int size() {
+        return keyframes.length;
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        return keyframes[index];
+    }
+}
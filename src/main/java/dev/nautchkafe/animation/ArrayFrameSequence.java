@@ -0,0 +1,46 @@
+package dev.nautchkafe.animation;
+
+import java.util.Arrays;
+
+/**
+ * A {@link FrameSequence} backed by a plain array of keyframes.
+ */
+final class ArrayFrameSequence implements FrameSequence {
+
+    private final Keyframe[] keyframes;
+
+    ArrayFrameSequence(final Keyframe[] keyframes) {
+        this.keyframes = keyframes;
+    }
+
+    @Override
+    public int size() {
+        return keyframes.length;
+    }
+
+    @Override
+    public Keyframe frame(final int index) {
+        return keyframes[index];
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ArrayFrameSequence that = (ArrayFrameSequence) o;
+        return Arrays.equals(keyframes, that.keyframes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(keyframes);
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayFrameSequence{" +
+                "keyframes=" + Arrays.toString(keyframes) +
+                '}';
+    }
+}
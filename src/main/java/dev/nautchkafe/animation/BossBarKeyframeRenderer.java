@@ -0,0 +1,140 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.bossbar.BossBar;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link KeyframeRenderer} for the {@link KeyframeChannel#BOSS_BAR} channel, which shows the title of
+ * each frame as the name of a boss bar.
+ *
+ * <p>Every animation task renders with its own {@link #forPlayback()} copy, which gives every receiver one boss
+ * bar that is created with the first frame and then mutated in place, so later frames only send the name or
+ * progress that changed. Animations playing to the same receiver at once, such as a personal animation and a
+ * broadcast, show separate bars. An animation that replaces another on a player's channel takes over its bar.
+ * The bar is hidden after the last frame. Frames are rendered on the main thread only, so the bars need no
+ * synchronization.</p>
+ */
+final class BossBarKeyframeRenderer implements KeyframeRenderer {
+
+    static final BossBarKeyframeRenderer DEFAULT = new BossBarKeyframeRenderer(BossBar.Color.WHITE, BossBar.Overlay.PROGRESS,
+            keyframe -> BossBar.MAX_PROGRESS);
+    private static final int PROGRESS_BYTES = 4;
+
+    private final BossBar.Color color;
+    private final BossBar.Overlay overlay;
+    private final ToDoubleFunction<CompiledKeyframe> progress;
+    private final Map<Audience, BossBar> bars;
+
+    /**
+     * @param color the color of the bars.
+     * @param overlay the overlay of the bars.
+     * @param progress the progress of the bar for each frame, between zero and one.
+     */
+    BossBarKeyframeRenderer(final BossBar.Color color, final BossBar.Overlay overlay,
+                            final ToDoubleFunction<CompiledKeyframe> progress) {
+        this.color = color;
+        this.overlay = overlay;
+        this.progress = progress;
+        this.bars = new WeakHashMap<>();
+    }
+
+    @Override
+    public KeyframeRenderer forPlayback() {
+        return new BossBarKeyframeRenderer(color, overlay, progress);
+    }
+
+    @Override
+    public boolean takeOver(final KeyframeRenderer replaced) {
+        if (!(replaced instanceof BossBarKeyframeRenderer other) || other == this || other.bars.isEmpty()) {
+            return false;
+        }
+
+        other.bars.forEach((audience, bar) -> {
+            if (bars.containsKey(audience)) {
+                audience.hideBossBar(bar);
+                return;
+            }
+
+            bar.color(color);
+            bar.overlay(overlay);
+            bars.put(audience, bar);
+        });
+        other.bars.clear();
+        return true;
+    }
+
+    @Override
+    public void render(final Audience audience, final Keyframe keyframe, final Duration tickDelay) {
+        render(audience, KeyframeCompiler.compile(keyframe, tickDelay));
+    }
+
+    @Override
+    public void render(final Audience audience, final CompiledKeyframe keyframe) {
+        final float barProgress = progressOf(keyframe);
+        final BossBar bar = bars.get(audience);
+        if (bar != null) {
+            bar.name(keyframe.title());
+            bar.progress(barProgress);
+            return;
+        }
+
+        final BossBar created = BossBar.bossBar(keyframe.title(), barProgress, color, overlay);
+        bars.put(audience, created);
+        audience.showBossBar(created);
+    }
+
+    @Override
+    public void renderTransition(final Audience audience, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous != keyframe) {
+            render(audience, keyframe);
+        }
+    }
+
+    @Override
+    public void renderEnd(final Audience audience, final CompiledKeyframe last) {
+        final BossBar bar = bars.remove(audience);
+        if (bar != null) {
+            audience.hideBossBar(bar);
+        }
+    }
+
+    @Override
+    public int estimatedPackets(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous == null) {
+            return 1;
+        }
+
+        final int name = Objects.equals(previous.title(), keyframe.title()) ? 0 : 1;
+        final int progress = progressOf(previous) == progressOf(keyframe) ? 0 : 1;
+        return name + progress;
+    }
+
+    @Override
+    public int estimatedBytes(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous == keyframe) {
+            return 0;
+        }
+
+        if (previous != null && Objects.equals(previous.title(), keyframe.title())) {
+            return PROGRESS_BYTES;
+        }
+
+        return keyframe.estimatedTitleBytes() + PROGRESS_BYTES;
+    }
+
+    @Override
+    public KeyframeChannel channel() {
+        return KeyframeChannel.BOSS_BAR;
+    }
+
+    private float progressOf(final CompiledKeyframe keyframe) {
+        final double value = progress.applyAsDouble(keyframe);
+        return (float) Math.max(BossBar.MIN_PROGRESS, Math.min(BossBar.MAX_PROGRESS, value));
+    }
+}
@@ -0,0 +1,35 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A random-access sequence of {@link CompiledKeyframe}s produced by the {@link KeyframeCompiler}.
+ * Instances are shared by every task playing the same animation; each task reads its frames through
+ * its own {@link #forPlayback()} view.
+ */
+public interface CompiledFrameSequence {
+
+    /**
+     * Returns the number of frames in the sequence.
+     *
+     * @return the frame count, or {@link FrameSequence#UNBOUNDED} for a sequence that never ends.
+     */
+    int size();
+
+    /**
+     * Returns the compiled frame at the given index.
+     *
+     * @param index the frame index, between zero and {@link #size()} exclusive.
+     * @return the compiled keyframe at the index, or null for a gap of a {@link KeyframeTimeline} in which nothing is sent.
+     */
+    CompiledKeyframe frame(final int index);
+
+    /**
+     * Returns a view of this sequence for one playback. Sequences that keep a playback cursor, such as
+     * streaming sequences, return a fresh view over the same source, so tasks playing at different positions
+     * do not throw away each other's prefetched frames. Sequences without a cursor return themselves.
+     *
+     * @return the sequence to play.
+     */
+    default CompiledFrameSequence forPlayback() {
+        return this;
+    }
+}
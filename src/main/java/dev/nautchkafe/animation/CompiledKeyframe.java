@@ -0,0 +1,225 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.title.Title;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A keyframe whose MiniMessage title and subtitle have already been parsed into components.
+ *
+ * <p>Compiled keyframes are immutable and hold a pre-built {@link Title}, so a single instance
+ * can be shown to any number of players and across any number of animation loops without
+ * parsing or allocating anything per frame.</p>
+ *
+ * <p>The size of the title and subtitle on the wire is estimated once, when the frame is compiled, so a
+ * {@link KeyframeBandwidthBudget} can charge frames without serializing them.</p>
+ *
+ * <p>Frames built from shared component trees, such as the frames of a growing bar, may create their source
+ * keyframe only when it is first asked for, so compiling them never builds the MiniMessage string of each frame.</p>
+ */
+public final class CompiledKeyframe {
+
+    private static final int COMPONENT_BYTES = 12;
+    static final int STYLE_BYTES = 24;
+
+    private final Supplier<Keyframe> sourceSupplier;
+    private volatile Keyframe source;
+    private final Component title;
+    private final Component subtitle;
+    private final Title.Times times;
+    private final Title preparedTitle;
+    private final int estimatedTitleBytes;
+    private final int estimatedSubtitleBytes;
+
+    private CompiledKeyframe(final Keyframe source, final Supplier<Keyframe> sourceSupplier, final Component title,
+                             final Component subtitle, final Title.Times times, final int estimatedTitleBytes,
+                             final int estimatedSubtitleBytes) {
+        this.source = source;
+        this.sourceSupplier = sourceSupplier;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.times = times;
+        this.preparedTitle = Title.title(title, subtitle, times);
+        this.estimatedTitleBytes = estimatedTitleBytes;
+        this.estimatedSubtitleBytes = estimatedSubtitleBytes;
+    }
+
+    /**
+     * Factory method to create a compiled keyframe from already parsed components.
+     *
+     * @param source the keyframe the components were parsed from.
+     * @param title the parsed title component.
+     * @param subtitle the parsed subtitle component.
+     * @param times the fade and stay times of the title.
+     * @return a new CompiledKeyframe instance.
+     */
+    public static CompiledKeyframe of(final Keyframe source, final Component title, final Component subtitle,
+                                      final Title.Times times) {
+        return new CompiledKeyframe(source, null, title, subtitle, times, estimateBytes(title), estimateBytes(subtitle));
+    }
+
+    /**
+     * Creates a compiled keyframe whose source is only created when it is first asked for, with sizes estimated
+     * by the caller, so neither costs more than building the components did.
+     *
+     * @param source creates the keyframe the components stand for.
+     * @param title the title component.
+     * @param subtitle the subtitle component.
+     * @param times the fade and stay times of the title.
+     * @param estimatedTitleBytes the estimated size of the title, as by {@link #estimateBytes(Component)}.
+     * @param estimatedSubtitleBytes the estimated size of the subtitle, as by {@link #estimateBytes(Component)}.
+     * @return a new CompiledKeyframe instance.
+     */
+    static CompiledKeyframe deferred(final Supplier<Keyframe> source, final Component title, final Component subtitle,
+                                     final Title.Times times, final int estimatedTitleBytes,
+                                     final int estimatedSubtitleBytes) {
+        return new CompiledKeyframe(null, source, title, subtitle, times, estimatedTitleBytes, estimatedSubtitleBytes);
+    }
+
+    /**
+     * Returns the keyframe this frame was compiled from.
+     *
+     * @return the source keyframe.
+     */
+    public Keyframe source() {
+        Keyframe keyframe = source;
+        if (keyframe == null) {
+            keyframe = sourceSupplier.get();
+            source = keyframe;
+        }
+
+        return keyframe;
+    }
+
+    /**
+     * Returns the parsed title component.
+     *
+     * @return the title component.
+     */
+    public Component title() {
+        return title;
+    }
+
+    /**
+     * Returns the parsed subtitle component.
+     *
+     * @return the subtitle component.
+     */
+    public Component subtitle() {
+        return subtitle;
+    }
+
+    /**
+     * Returns the fade and stay times of the title.
+     *
+     * @return the title times.
+     */
+    public Title.Times times() {
+        return times;
+    }
+
+    /**
+     * Returns this frame with a stay time long enough to keep it on screen while its animation is paused.
+     *
+     * @return the held frame, with the same components and {@link KeyframeCompiler#HOLD_TIMES}.
+     */
+    CompiledKeyframe held() {
+        return new CompiledKeyframe(source, sourceSupplier, title, subtitle, KeyframeCompiler.HOLD_TIMES,
+                estimatedTitleBytes, estimatedSubtitleBytes);
+    }
+
+    /**
+     * Determines if this frame is held on screen by a paused animation.
+     *
+     * @return true if this frame was made by {@link #held()}.
+     */
+    boolean isHeld() {
+        return times == KeyframeCompiler.HOLD_TIMES;
+    }
+
+    /**
+     * Returns the pre-built title that can be shown directly to an audience.
+     *
+     * @return the prepared title.
+     */
+    public Title asTitle() {
+        return preparedTitle;
+    }
+
+    /**
+     * Returns the estimated size of the title on the wire.
+     *
+     * @return the estimated title bytes.
+     */
+    public int estimatedTitleBytes() {
+        return estimatedTitleBytes;
+    }
+
+    /**
+     * Returns the estimated size of the subtitle on the wire.
+     *
+     * @return the estimated subtitle bytes.
+     */
+    public int estimatedSubtitleBytes() {
+        return estimatedSubtitleBytes;
+    }
+
+    /**
+     * Estimates the serialized size of a component tree from its text and the number of styled components.
+     *
+     * @param component the component.
+     * @return the estimated bytes.
+     */
+    static int estimateBytes(final Component component) {
+        int bytes = estimateOwnBytes(component);
+        for (final Component child : component.children()) {
+            bytes += estimateBytes(child);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Estimates the serialized size of a component without its children.
+     *
+     * @param component the component.
+     * @return the estimated bytes.
+     */
+    static int estimateOwnBytes(final Component component) {
+        int bytes = COMPONENT_BYTES;
+        if (component instanceof TextComponent text) {
+            bytes += text.content().length();
+        }
+
+        if (!component.style().isEmpty()) {
+            bytes += STYLE_BYTES;
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        CompiledKeyframe that = (CompiledKeyframe) o;
+        return Objects.equals(source(), that.source()) && Objects.equals(times, that.times);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source(), times);
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledKeyframe{" +
+                "source=" + source() +
+                ", times=" + times +
+                '}';
+    }
+}
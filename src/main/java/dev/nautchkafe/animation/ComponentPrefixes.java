@@ -0,0 +1,174 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+
+import java.util.Arrays;
+
+/**
+ * The prefixes of one plain text as component trees that share their nodes, such as the frames of a growing bar
+ * or of a typewriter.
+ *
+ * <p>The text is cut once into leaves of about {@link #LEAF_LENGTH} characters, never inside a surrogate pair, and
+ * every aligned run of two, four, eight and more leaves is joined into one node over the two halves. A prefix is
+ * then made of at most one node per level, each run ending where the next starts, plus the text after the last
+ * whole leaf. So the nodes of all levels hold the text once, a prefix costs a handful of references and a short
+ * tail, and consecutive prefixes share all of their nodes but the last few.</p>
+ *
+ * <p>Leaves are larger than one character so a prefix is sent as a few dozen components at most, instead of one
+ * per character.</p>
+ */
+final class ComponentPrefixes {
+
+    static final int LEAF_LENGTH = 32;
+
+    private final String text;
+    private final int[] leafEnds;
+    private final Component[][] levels;
+    private final int[][] levelBytes;
+
+    private ComponentPrefixes(final String text, final int[] leafEnds, final Component[][] levels,
+                              final int[][] levelBytes) {
+        this.text = text;
+        this.leafEnds = leafEnds;
+        this.levels = levels;
+        this.levelBytes = levelBytes;
+    }
+
+    /**
+     * Cuts a text into the shared nodes of its prefixes.
+     *
+     * @param text the full text.
+     * @return the prefixes of the text.
+     */
+    static ComponentPrefixes of(final String text) {
+        final int[] leafEnds = leafEnds(text);
+        final int levelCount = leafEnds.length == 0 ? 1 : 32 - Integer.numberOfLeadingZeros(leafEnds.length);
+        final Component[][] levels = new Component[levelCount][];
+        final int[][] levelBytes = new int[levelCount][];
+
+        levels[0] = new Component[leafEnds.length];
+        levelBytes[0] = new int[leafEnds.length];
+        for (int leaf = 0; leaf < leafEnds.length; leaf++) {
+            levels[0][leaf] = Component.text(text.substring(leaf == 0 ? 0 : leafEnds[leaf - 1], leafEnds[leaf]));
+            levelBytes[0][leaf] = CompiledKeyframe.estimateOwnBytes(levels[0][leaf]);
+        }
+
+        for (int level = 1; level < levelCount; level++) {
+            final Component[] below = levels[level - 1];
+            levels[level] = new Component[below.length / 2];
+            levelBytes[level] = new int[below.length / 2];
+
+            for (int node = 0; node < levels[level].length; node++) {
+                levels[level][node] = Component.textOfChildren(below[2 * node], below[2 * node + 1]);
+                levelBytes[level][node] = CompiledKeyframe.estimateOwnBytes(levels[level][node])
+                        + levelBytes[level - 1][2 * node] + levelBytes[level - 1][2 * node + 1];
+            }
+        }
+
+        return new ComponentPrefixes(text, leafEnds, levels, levelBytes);
+    }
+
+    /**
+     * Returns the full text.
+     *
+     * @return the text.
+     */
+    String text() {
+        return text;
+    }
+
+    /**
+     * Returns the prefix of the given length as a component tree sharing the nodes of this text.
+     *
+     * @param length the prefix length in chars, which must not split a surrogate pair.
+     * @return the prefix component.
+     */
+    Component prefix(final int length) {
+        final int leaves = wholeLeaves(length);
+        final int tailStart = leaves == 0 ? 0 : leafEnds[leaves - 1];
+        final ComponentLike[] parts = new ComponentLike[Integer.bitCount(leaves) + (tailStart < length ? 1 : 0)];
+
+        int part = 0;
+        int start = 0;
+        for (int level = levels.length - 1; level >= 0; level--) {
+            if ((leaves >> level & 1) != 0) {
+                parts[part++] = levels[level][start >> level];
+                start += 1 << level;
+            }
+        }
+
+        if (tailStart < length) {
+            parts[part] = Component.text(text.substring(tailStart, length));
+        }
+
+        if (parts.length == 0) {
+            return Component.empty();
+        }
+
+        return parts.length == 1 ? parts[0].asComponent() : Component.textOfChildren(parts);
+    }
+
+    /**
+     * Estimates the serialized size of the prefix of the given length, as
+     * {@link CompiledKeyframe#estimateBytes(Component)} would estimate {@link #prefix(int)}, without walking it.
+     *
+     * @param length the prefix length in chars.
+     * @return the estimated bytes.
+     */
+    int estimatedBytes(final int length) {
+        final int leaves = wholeLeaves(length);
+        final int tailStart = leaves == 0 ? 0 : leafEnds[leaves - 1];
+        final int parts = Integer.bitCount(leaves) + (tailStart < length ? 1 : 0);
+
+        int bytes = parts == 1 ? 0 : CompiledKeyframe.estimateOwnBytes(Component.empty());
+        int start = 0;
+        for (int level = levels.length - 1; level >= 0; level--) {
+            if ((leaves >> level & 1) != 0) {
+                bytes += levelBytes[level][start >> level];
+                start += 1 << level;
+            }
+        }
+
+        if (tailStart < length) {
+            bytes += CompiledKeyframe.estimateOwnBytes(Component.empty()) + length - tailStart;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns how many leaves lie entirely within the prefix of the given length.
+     *
+     * @param length the prefix length in chars.
+     * @return the number of whole leaves.
+     */
+    private int wholeLeaves(final int length) {
+        final int found = Arrays.binarySearch(leafEnds, length);
+        return found >= 0 ? found + 1 : -found - 1;
+    }
+
+    /**
+     * Cuts a text into leaves of {@link #LEAF_LENGTH} chars, moving a cut that would split a surrogate pair
+     * one char further. The text after the last whole leaf is not a leaf.
+     *
+     * @param text the full text.
+     * @return the end of each leaf.
+     */
+    private static int[] leafEnds(final String text) {
+        final int[] ends = new int[text.length() / LEAF_LENGTH];
+        int count = 0;
+        int end = LEAF_LENGTH;
+
+        while (end <= text.length()) {
+            if (Character.isHighSurrogate(text.charAt(end - 1)) && end < text.length()) {
+                end++;
+            }
+
+            ends[count++] = end;
+            end += LEAF_LENGTH;
+        }
+
+        return Arrays.copyOf(ends, count);
+    }
+}
@@ -0,0 +1,209 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.KeybindComponent;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.Tag;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One MiniMessage string parsed once into a component tree with marked slots.
+ *
+ * <p>Slot tags are parsed into marker components. The tree is then walked once to record which nodes
+ * lead to a slot, so filling the slots only rebuilds those nodes and shares every other node of the tree.
+ * The estimated size of the nodes that do not lead to a slot is recorded as well, so the size of a filled
+ * tree is estimated from the sizes of the values without walking them.
+ * The MiniMessage source is also split into literal segments, so the source of a filled template is built
+ * by concatenation instead of a parse.</p>
+ */
+final class ComponentTemplate {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final String SLOT_KEY_PREFIX = "keyframe-template-slot:";
+
+    private final Node root;
+    private final String[] literals;
+    private final int[] literalSlots;
+
+    private ComponentTemplate(final Node root, final String[] literals, final int[] literalSlots) {
+        this.root = root;
+        this.literals = literals;
+        this.literalSlots = literalSlots;
+    }
+
+    /**
+     * Parses a MiniMessage string, treating the given tag names as slots.
+     *
+     * @param message the MiniMessage source.
+     * @param slots the slot names, whose position is the index of their value.
+     * @return the parsed template.
+     */
+    static ComponentTemplate parse(final String message, final List<String> slots) {
+        final List<TagResolver> resolvers = new ArrayList<>(slots.size());
+        for (int slot = 0; slot < slots.size(); slot++) {
+            resolvers.add(TagResolver.resolver(slots.get(slot),
+                    Tag.selfClosingInserting(Component.keybind(SLOT_KEY_PREFIX + slot))));
+        }
+
+        final Component component = MINI_MESSAGE.deserialize(message, TagResolver.resolver(resolvers));
+        return splitSource(message, slots, plan(component));
+    }
+
+    /**
+     * Fills the slots of the component tree with the given values.
+     *
+     * @param values the slot values, in slot order.
+     * @return the filled component.
+     */
+    Component apply(final ComponentLike[] values) {
+        return build(root, values);
+    }
+
+    /**
+     * Estimates the serialized size of the component tree filled with the given values, as
+     * {@link CompiledKeyframe#estimateBytes(Component)} would estimate the result of {@link #apply(ComponentLike[])}.
+     *
+     * @param values the slot values, in slot order.
+     * @param valueBytes the estimated size of each slot value, in slot order.
+     * @return the estimated bytes.
+     */
+    int estimatedBytes(final ComponentLike[] values, final int[] valueBytes) {
+        return estimatedBytes(root, values, valueBytes);
+    }
+
+    /**
+     * Fills the slots of the MiniMessage source with the given values, escaped so they are shown as plain text.
+     *
+     * @param values the slot values, in slot order.
+     * @return the filled MiniMessage source.
+     */
+    String source(final String[] values) {
+        final StringBuilder builder = new StringBuilder();
+
+        for (int index = 0; index < literals.length; index++) {
+            builder.append(literals[index]);
+
+            if (index < literalSlots.length) {
+                builder.append(MINI_MESSAGE.escapeTags(values[literalSlots[index]]));
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Records the path from the root to every slot marker of a parsed tree.
+     *
+     * @param component the parsed component.
+     * @return the node of the component.
+     */
+    private static Node plan(final Component component) {
+        if (component instanceof KeybindComponent keybind && keybind.keybind().startsWith(SLOT_KEY_PREFIX)) {
+            return new Node(component, Integer.parseInt(keybind.keybind().substring(SLOT_KEY_PREFIX.length())), null, 0);
+        }
+
+        final List<Component> children = component.children();
+        final Node[] childNodes = new Node[children.size()];
+        boolean containsSlot = false;
+
+        for (int index = 0; index < childNodes.length; index++) {
+            childNodes[index] = plan(children.get(index));
+            containsSlot |= childNodes[index].containsSlot();
+        }
+
+        return containsSlot
+                ? new Node(component, -1, childNodes, CompiledKeyframe.estimateOwnBytes(component))
+                : new Node(component, -1, null, CompiledKeyframe.estimateBytes(component));
+    }
+
+    private static Component build(final Node node, final ComponentLike[] values) {
+        if (node.slot >= 0) {
+            final Component value = values[node.slot].asComponent();
+            final Style markerStyle = node.component.style();
+
+            return markerStyle.isEmpty()
+                    ? value
+                    : value.style(value.style().merge(markerStyle, Style.Merge.Strategy.IF_ABSENT_ON_TARGET));
+        }
+
+        if (node.children == null) {
+            return node.component;
+        }
+
+        final List<Component> children = new ArrayList<>(node.children.length);
+        for (final Node child : node.children) {
+            children.add(build(child, values));
+        }
+
+        return node.component.children(children);
+    }
+
+    private static int estimatedBytes(final Node node, final ComponentLike[] values, final int[] valueBytes) {
+        if (node.slot >= 0) {
+            final boolean gainsStyle = !node.component.style().isEmpty()
+                    && values[node.slot].asComponent().style().isEmpty();
+
+            return gainsStyle ? valueBytes[node.slot] + CompiledKeyframe.STYLE_BYTES : valueBytes[node.slot];
+        }
+
+        if (node.children == null) {
+            return node.bytes;
+        }
+
+        int bytes = node.bytes;
+        for (final Node child : node.children) {
+            bytes += estimatedBytes(child, values, valueBytes);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Splits the MiniMessage source around its slot tags.
+     *
+     * @param message the MiniMessage source.
+     * @param slots the slot names.
+     * @param root the planned component tree.
+     * @return the template.
+     */
+    private static ComponentTemplate splitSource(final String message, final List<String> slots, final Node root) {
+        if (slots.isEmpty()) {
+            return new ComponentTemplate(root, new String[]{message}, new int[0]);
+        }
+
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> literalSlots = new ArrayList<>();
+
+        final Pattern slotTag = Pattern.compile("<(" + String.join("|", slots.stream().map(Pattern::quote).toList()) + ")/?>");
+        final Matcher matcher = slotTag.matcher(message);
+        int literalStart = 0;
+
+        while (matcher.find()) {
+            literals.add(message.substring(literalStart, matcher.start()));
+            literalSlots.add(slots.indexOf(matcher.group(1)));
+            literalStart = matcher.end();
+        }
+
+        literals.add(message.substring(literalStart));
+        return new ComponentTemplate(root, literals.toArray(String[]::new),
+                literalSlots.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * A node of the parsed tree: a slot marker, or a component with the nodes of its children if any of them lead to a slot.
+     * The bytes are the estimated size of the component without its children if they lead to a slot, and with them otherwise.
+     */
+    private record Node(Component component, int slot, Node[] children, int bytes) {
+
+        boolean containsSlot() {
+            return slot >= 0 || children != null;
+        }
+    }
+}
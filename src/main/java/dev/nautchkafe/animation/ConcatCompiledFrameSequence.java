@@ -0,0 +1,57 @@
+package dev.nautchkafe.animation;
+
+import java.util.Arrays;
+
+/**
+ * A {@link CompiledFrameSequence} that plays several sequences one after another without copying their frames.
+ */
+final class ConcatCompiledFrameSequence implements CompiledFrameSequence {
+
+    private final CompiledFrameSequence[] parts;
+    private final long[] starts;
+    private final int size;
+
+    ConcatCompiledFrameSequence(final CompiledFrameSequence[] parts) {
+        this.parts = parts;
+        this.starts = new long[parts.length];
+
+        long start = 0L;
+        for (int index = 0; index < parts.length; index++) {
+            starts[index] = start;
+            start += parts[index].size();
+        }
+
+        this.size = KeyframeTimeline.saturatedSize(start);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CompiledFrameSequence forPlayback() {
+        final CompiledFrameSequence[] playedParts = new CompiledFrameSequence[parts.length];
+        boolean changed = false;
+
+        for (int index = 0; index < parts.length; index++) {
+            playedParts[index] = parts[index].forPlayback();
+            changed |= playedParts[index] != parts[index];
+        }
+
+        return changed ? new ConcatCompiledFrameSequence(playedParts) : this;
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        final int found = Arrays.binarySearch(starts, index);
+        int part = found >= 0 ? found : -found - 2;
+
+        // skips the empty parts that start at the same index
+        while (part < parts.length - 1 && starts[part + 1] == starts[part]) {
+            part++;
+        }
+
+        return parts[part].frame((int) (index - starts[part]));
+    }
+}
@@ -0,0 +1,52 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.title.Title;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link CompiledFrameSequence} whose frames are compiled on a background worker.
+ *
+ * <p>Until the worker finishes, each requested frame is compiled on its own from the shared component
+ * cache, so playback can start right away and never waits for the worker.</p>
+ *
+ * <p>This class is meant to be read from the engine thread. Every task plays its own {@link #forPlayback()} view,
+ * which plays the playback view of the result once it is ready.</p>
+ */
+final class DeferredCompiledFrameSequence implements CompiledFrameSequence {
+
+    private final FrameSequence source;
+    private final Title.Times times;
+    private final CompletableFuture<CompiledFrameSequence> compiled;
+    private CompiledFrameSequence resolved;
+
+    DeferredCompiledFrameSequence(final FrameSequence source, final Title.Times times,
+                                  final CompletableFuture<CompiledFrameSequence> compiled) {
+        this.source = source;
+        this.times = times;
+        this.compiled = compiled;
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    @Override
+    public CompiledFrameSequence forPlayback() {
+        final CompiledFrameSequence result = KeyframeWorkers.resultNow(compiled);
+        return result != null ? result.forPlayback() : new DeferredCompiledFrameSequence(source, times, compiled);
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        if (resolved == null) {
+            final CompiledFrameSequence result = KeyframeWorkers.resultNow(compiled);
+            resolved = result == null ? null : result.forPlayback();
+        }
+
+        return resolved != null
+                ? resolved.frame(index)
+                : KeyframeCompiler.compile(source, index, times);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.control.Try;
+import net.kyori.adventure.audience.Audience;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link KeyframeAudience} backed by an Adventure {@link Audience}, which forwards each frame
+ * to whatever members it holds at render time.
+ *
+ * <p>Frames are rendered on the main thread only, so the frame being rendered is handed to the members through
+ * fields and one consumer created up front, and forwarding a frame allocates nothing.</p>
+ */
+final class ForwardingKeyframeAudience implements KeyframeAudience {
+
+    private final Audience audience;
+    private final Consumer<Audience> memberRenderer;
+    private KeyframeRenderer renderer;
+    private CompiledKeyframe previous;
+    private CompiledKeyframe keyframe;
+
+    ForwardingKeyframeAudience(final Audience audience) {
+        this.audience = audience;
+        this.memberRenderer = this::renderMember;
+    }
+
+    @Override
+    public boolean isActive() {
+        return true;
+    }
+
+    @Override
+    public void render(final KeyframeRenderer renderer, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        this.renderer = renderer;
+        this.previous = previous;
+        this.keyframe = keyframe;
+        audience.forEachAudience(memberRenderer);
+    }
+
+    @Override
+    public void finish(final KeyframeRenderer renderer, final CompiledKeyframe last) {
+        audience.forEachAudience(member -> Try.run(() -> renderer.renderEnd(member, last))
+                .onFailure(e -> KeyframeLogger.logInfo("> Error finishing keyframe animation: " + e.getMessage())));
+    }
+
+    /**
+     * Renders the current frame to one member, so a failure for one member does not stop the others.
+     *
+     * @param member the receiving member.
+     */
+    private void renderMember(final Audience member) {
+        try {
+            KeyframeAudience.renderTo(member, renderer, previous, keyframe);
+        } catch (final RuntimeException e) {
+            KeyframeLogger.logInfo("> Error rendering keyframe: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+
+import java.util.function.IntFunction;
+
+/**
+ * A random-access sequence of keyframes with a known size.
+ *
+ * <p>Unlike a linked {@link List}, looking up any frame of a {@code FrameSequence} is a constant-time
+ * operation, so playback cursors can jump to an arbitrary frame without walking the sequence.</p>
+ */
+public interface FrameSequence {
+
+    /**
+     * The size reported by sequences that never run out of frames. At one frame per tick
+     * it would take years of playback to reach it.
+     */
+    int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * The number of frames a streaming sequence compiles ahead of playback by default.
+     */
+    int DEFAULT_LOOK_AHEAD = 8;
+
+    /**
+     * Returns the number of frames in the sequence.
+     *
+     * @return the frame count, or {@link #UNBOUNDED} for a sequence that never ends.
+     */
+    int size();
+
+    /**
+     * Returns the frame at the given index.
+     *
+     * @param index the frame index, between zero and {@link #size()} exclusive.
+     * @return the keyframe at the index.
+     */
+    Keyframe frame(final int index);
+
+    /**
+     * Determines if the sequence holds no frames.
+     *
+     * @return true if the sequence is empty.
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Determines if the frames are produced on demand rather than held in memory. Streaming sequences
+     * are compiled lazily while they play instead of up front.
+     *
+     * @return true if the sequence is streaming.
+     */
+    default boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Copies the frames of this sequence into a vavr list. Must not be called on unbounded sequences.
+     *
+     * @return a list of the frames in order.
+     */
+    default List<Keyframe> toList() {
+        return List.range(0, size()).map(this::frame);
+    }
+
+    /**
+     * Creates an array-backed sequence of the given keyframes.
+     *
+     * @param keyframes the keyframes in playback order.
+     * @return a new FrameSequence.
+     */
+    static FrameSequence of(final Keyframe... keyframes) {
+        return new ArrayFrameSequence(keyframes.clone());
+    }
+
+    /**
+     * Creates an array-backed sequence from a list of keyframes.
+     *
+     * @param keyframes the keyframes in playback order.
+     * @return a new FrameSequence.
+     */
+    static FrameSequence of(final List<Keyframe> keyframes) {
+        return new ArrayFrameSequence(keyframes.toJavaArray(Keyframe[]::new));
+    }
+
+    /**
+     * Creates an array-backed sequence by generating each frame from its index.
+     *
+     * @param size the number of frames to generate.
+     * @param generator the function producing the frame of each index.
+     * @return a new FrameSequence.
+     */
+    static FrameSequence generate(final int size, final IntFunction<Keyframe> generator) {
+        final Keyframe[] keyframes = new Keyframe[size];
+        for (int index = 0; index < size; index++) {
+            keyframes[index] = generator.apply(index);
+        }
+
+        return new ArrayFrameSequence(keyframes);
+    }
+
+    /**
+     * Creates a streaming sequence that generates each frame from its index only when it is played,
+     * compiling {@link #DEFAULT_LOOK_AHEAD} frames ahead of playback. Time to first frame and memory
+     * stay constant regardless of the frame count.
+     *
+     * @param size the number of frames in the sequence.
+     * @param generator the function producing the frame of each index.
+     * @return a new streaming FrameSequence.
+     */
+    static FrameSequence streaming(final int size, final IntFunction<Keyframe> generator) {
+        return streaming(size, generator, DEFAULT_LOOK_AHEAD);
+    }
+
+    /**
+     * Creates a streaming sequence that generates each frame from its index only when it is played.
+     * The next batch is compiled on a background worker, so the generator must be safe to call from any thread.
+     *
+     * @param size the number of frames in the sequence.
+     * @param generator the function producing the frame of each index.
+     * @param lookAhead the number of frames compiled ahead of playback in one batch.
+     * @return a new streaming FrameSequence.
+     */
+    static FrameSequence streaming(final int size, final IntFunction<Keyframe> generator, final int lookAhead) {
+        return new StreamingFrameSequence(size, generator, lookAhead);
+    }
+
+    /**
+     * Creates a streaming sequence that never ends, such as an endlessly looping animation.
+     *
+     * @param generator the function producing the frame of each index.
+     * @return a new unbounded streaming FrameSequence.
+     */
+    static FrameSequence unbounded(final IntFunction<Keyframe> generator) {
+        return streaming(UNBOUNDED, generator);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A {@link CompiledFrameSequence} of the given length in which no frame is sent, such as a timeline delay.
+ */
+final class GapCompiledFrameSequence implements CompiledFrameSequence {
+
+    private final int size;
+
+    GapCompiledFrameSequence(final int size) {
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A {@link KeyframeMetricsSink} that keeps the most recent snapshots in memory.
+ * Publishing and reading are safe from different threads.
+ */
+public final class InMemoryKeyframeMetricsSink implements KeyframeMetricsSink {
+
+    private final int capacity;
+    private final Deque<KeyframeMetricsSnapshot> snapshots;
+
+    InMemoryKeyframeMetricsSink(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.snapshots = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * Stores a snapshot, evicting the oldest one once the capacity is reached.
+     *
+     * @param snapshot the immutable metrics of the interval.
+     */
+    @Override
+    public synchronized void publish(final KeyframeMetricsSnapshot snapshot) {
+        if (snapshots.size() == capacity) {
+            snapshots.pollFirst();
+        }
+
+        snapshots.addLast(snapshot);
+    }
+
+    /**
+     * Returns the most recently published snapshot.
+     *
+     * @return the latest snapshot, if any was published.
+     */
+    public synchronized Option<KeyframeMetricsSnapshot> latest() {
+        return Option.of(snapshots.peekLast());
+    }
+
+    /**
+     * Returns the kept snapshots, oldest first.
+     *
+     * @return the published snapshots.
+     */
+    public synchronized List<KeyframeMetricsSnapshot> snapshots() {
+        return List.ofAll(snapshots);
+    }
+
+    /**
+     * Discards every kept snapshot.
+     */
+    public synchronized void clear() {
+        snapshots.clear();
+    }
+}
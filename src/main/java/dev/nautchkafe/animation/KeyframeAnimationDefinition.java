@@ -0,0 +1,156 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.audience.Audience;
+import org.bukkit.entity.Player;
+
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * An animation loaded from a definition file of a {@link KeyframeAnimationLibrary}.
+ *
+ * <p>The frames are held in the compact {@link KeyframeStore} of the library, with their components parsed
+ * once when the file was loaded, and are compiled in look-ahead batches while they play.
+ * Definitions are immutable. Reloading a file replaces its definition with a new one, so dispatchers
+ * created from the old definition, and the animations they already started, keep playing the old version.</p>
+ */
+public final class KeyframeAnimationDefinition {
+
+    private final String id;
+    private final Duration tickDelay;
+    private final KeyframePriority priority;
+    private final FrameSequence keyframes;
+    private final long fingerprint;
+
+    private KeyframeAnimationDefinition(final String id, final Duration tickDelay, final KeyframePriority priority,
+                                        final FrameSequence keyframes, final long fingerprint) {
+        this.id = id;
+        this.tickDelay = tickDelay;
+        this.priority = priority;
+        this.keyframes = keyframes;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Factory method to create a definition.
+     *
+     * @param id the id of the animation, the name of its file without the extension.
+     * @param tickDelay the delay between frames.
+     * @param priority how the animation is degraded when the server is under load.
+     * @param keyframes the keyframes of the animation, as held by the store of the library.
+     * @param fingerprint the checksum of the file content the definition was read from.
+     * @return a new KeyframeAnimationDefinition instance.
+     */
+    static KeyframeAnimationDefinition of(final String id, final Duration tickDelay, final KeyframePriority priority,
+                                          final FrameSequence keyframes, final long fingerprint) {
+        return new KeyframeAnimationDefinition(id, tickDelay, priority, keyframes, fingerprint);
+    }
+
+    /**
+     * Creates a dispatcher that plays this version of the animation to a player.
+     *
+     * @param player The player who will experience the animation.
+     * @param renderer The renderer for keyframe effects.
+     * @param plugin The plugin whose engine plays the animation.
+     * @return A new KeyframeAnimationDispatcher instance, named after the id of this definition.
+     */
+    public KeyframeAnimationDispatcher dispatcher(final Player player, final KeyframeRenderer renderer,
+                                                  final KeyframeAnimationPlugin plugin) {
+        return KeyframeAnimationDispatcher.compiled(() -> KeyframeAudience.player(player), compile(),
+                        renderer, tickDelay, KeyframeAnimationEngine.of(plugin))
+                .named(id)
+                .priority(priority);
+    }
+
+    /**
+     * Creates a dispatcher that broadcasts this version of the animation to a group of players.
+     *
+     * @param players The players who will experience the animation, captured on each dispatch.
+     * @param renderer The renderer for keyframe effects.
+     * @param plugin The plugin whose engine plays the animation.
+     * @return A new KeyframeAnimationDispatcher instance, named after the id of this definition.
+     */
+    public KeyframeAnimationDispatcher broadcast(final Collection<? extends Player> players, final KeyframeRenderer renderer,
+                                                 final KeyframeAnimationPlugin plugin) {
+        return KeyframeAnimationDispatcher.compiled(() -> KeyframeAudience.players(players), compile(),
+                        renderer, tickDelay, KeyframeAnimationEngine.of(plugin))
+                .named(id)
+                .priority(priority);
+    }
+
+    /**
+     * Creates a dispatcher that broadcasts this version of the animation to an Adventure audience group.
+     *
+     * @param audience The audience which will experience the animation.
+     * @param renderer The renderer for keyframe effects.
+     * @param plugin The plugin whose engine plays the animation.
+     * @return A new KeyframeAnimationDispatcher instance, named after the id of this definition.
+     */
+    public KeyframeAnimationDispatcher broadcast(final Audience audience, final KeyframeRenderer renderer,
+                                                 final KeyframeAnimationPlugin plugin) {
+        return KeyframeAnimationDispatcher.compiled(() -> KeyframeAudience.forwarding(audience), compile(),
+                        renderer, tickDelay, KeyframeAnimationEngine.of(plugin))
+                .named(id)
+                .priority(priority);
+    }
+
+    /**
+     * Fetches the id of the animation.
+     * @return the id, the name of the definition file without the extension.
+     */
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Fetches the delay between frames.
+     * @return the tick delay.
+     */
+    public Duration tickDelay() {
+        return tickDelay;
+    }
+
+    /**
+     * Fetches the priority of the animation.
+     * @return the priority.
+     */
+    public KeyframePriority priority() {
+        return priority;
+    }
+
+    /**
+     * Fetches the keyframes of the animation.
+     * @return the keyframes as a FrameSequence of views into the store of the library.
+     */
+    public FrameSequence keyframes() {
+        return keyframes;
+    }
+
+    /**
+     * Compiles the frames for one dispatcher. Stored frames are streamed from the cached components of the
+     * store, so this neither parses nor copies the frames.
+     *
+     * @return the compiled keyframes.
+     */
+    private CompiledFrameSequence compile() {
+        return KeyframeCompiler.compile(keyframes, tickDelay);
+    }
+
+    /**
+     * Fetches the checksum of the file content this definition was read from.
+     * @return the content checksum.
+     */
+    long fingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeAnimationDefinition{" +
+                "id='" + id + '\'' +
+                ", tickDelay=" + tickDelay +
+                ", priority=" + priority +
+                ", frames=" + keyframes.size() +
+                '}';
+    }
+}
@@ -1,26 +1,57 @@
 package dev.nautchkafe.animation;
 
+import io.vavr.collection.LinkedHashMap;
 import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import net.kyori.adventure.audience.Audience;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Supplier;
 
 /**
- * A class to manage and dispatch keyframe animations for a player.
+ * A class to manage and dispatch keyframe animations for a player, or broadcast one timeline to many players.
+ * Animations play on the {@link KeyframeChannel} of their renderer. A {@link KeyframeTimeline} is dispatched as one
+ * animation per channel, all started on the same engine tick, and channels without a renderer of their own use
+ * the default renderer of the channel.
  */
 public final class KeyframeAnimationDispatcher {
 
-    private final Player player;
-    private final List<Keyframe> keyframes;
+    private final Supplier<KeyframeAudience> audienceFactory;
+    private final Map<KeyframeChannel, CompiledFrameSequence> tracks;
+    private final Map<KeyframeChannel, KeyframeRenderer> renderers;
     private final Duration tickDelay;
-    private final KeyframeAnimationPlugin plugin;
+    private final KeyframeAnimationEngine engine;
+    private final String type;
+    private final KeyframePriority priority;
 
-    private KeyframeAnimationDispatcher(final Player player, final List<Keyframe> keyframes, final KeyframeRenderer renderer,
-                                        final Duration tickDelay, final KeyframeAnimationPlugin plugin) {
-        this.player = player;
-        this.keyframes = keyframes;
+    private KeyframeAnimationDispatcher(final Supplier<KeyframeAudience> audienceFactory, final FrameSequence keyframes,
+                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                        final KeyframeAnimationPlugin plugin) {
+        this(audienceFactory, LinkedHashMap.of(renderer.channel(), KeyframeCompiler.compileInBackground(keyframes, tickDelay)),
+                LinkedHashMap.of(renderer.channel(), renderer), tickDelay, KeyframeAnimationEngine.of(plugin),
+                KeyframeMetrics.UNNAMED_TYPE, KeyframePriority.NORMAL);
+    }
+
+    private KeyframeAnimationDispatcher(final Supplier<KeyframeAudience> audienceFactory, final KeyframeTimeline timeline,
+                                        final KeyframeRenderer renderer, final KeyframeAnimationPlugin plugin) {
+        this(audienceFactory, timeline.compile(), LinkedHashMap.of(renderer.channel(), renderer), timeline.tick(),
+                KeyframeAnimationEngine.of(plugin), KeyframeMetrics.UNNAMED_TYPE, KeyframePriority.NORMAL);
+    }
+
+    private KeyframeAnimationDispatcher(final Supplier<KeyframeAudience> audienceFactory,
+                                        final Map<KeyframeChannel, CompiledFrameSequence> tracks,
+                                        final Map<KeyframeChannel, KeyframeRenderer> renderers,
+                                        final Duration tickDelay, final KeyframeAnimationEngine engine,
+                                        final String type, final KeyframePriority priority) {
+        this.audienceFactory = audienceFactory;
+        this.tracks = tracks;
+        this.renderers = renderers;
         this.tickDelay = tickDelay;
-        this.plugin = plugin;
+        this.engine = engine;
+        this.type = type;
+        this.priority = priority;
     }
 
     /**
@@ -35,8 +66,30 @@ public final class KeyframeAnimationDispatcher {
     public static KeyframeAnimationDispatcher of(final Player player, final KeyframeAnimationMessageConfig config,
                                                  final KeyframeRenderer renderer, final Duration tickDelay,
                                                  final KeyframeAnimationPlugin plugin) {
-        final List<Keyframe> keyframes = config.customKeyframes();
-        return new KeyframeAnimationDispatcher(player, keyframes, renderer, tickDelay, plugin);
+        final KeyframeAnimationEngine engine = KeyframeAnimationEngine.of(plugin);
+        return compiled(() -> KeyframeAudience.player(player), engine.warmup().compiled(config, tickDelay),
+                renderer, tickDelay, engine);
+    }
+
+    /**
+     * Factory method to create an instance of KeyframeAnimationDispatcher for an animation, which uses the frames
+     * precompiled by the {@link KeyframeWarmup} of the engine when the animation was warmed up.
+     *
+     * @param player The player who will experience the animation.
+     * @param animation The animation to play.
+     * @param cycles The number of cycles of the animation.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher of(final Player player, final KeyframeAnimation animation, final int cycles,
+                                                 final KeyframeRenderer renderer, final Duration tickDelay,
+                                                 final KeyframeAnimationPlugin plugin) {
+        final KeyframeAnimationEngine engine = KeyframeAnimationEngine.of(plugin);
+        final CompiledFrameSequence keyframes = engine.warmup()
+                .compiled(animation, cycles, tickDelay, () -> animation.sequence(cycles));
+
+        return compiled(() -> KeyframeAudience.player(player), keyframes, renderer, tickDelay, engine);
     }
 
     /**
@@ -51,25 +104,274 @@ public final class KeyframeAnimationDispatcher {
     public static KeyframeAnimationDispatcher of(final Player player, final List<Keyframe> keyframes,
                                                  final KeyframeRenderer renderer, final Duration tickDelay,
                                                  final KeyframeAnimationPlugin plugin) {
-        return new KeyframeAnimationDispatcher(player, keyframes, renderer, tickDelay, plugin);
+        return of(player, FrameSequence.of(keyframes), renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create an instance of KeyframeAnimationDispatcher with a random-access frame sequence.
+     *
+     * @param player The player who will experience the animation.
+     * @param keyframes The sequence of pre-created keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher of(final Player player, final FrameSequence keyframes,
+                                                 final KeyframeRenderer renderer, final Duration tickDelay,
+                                                 final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.player(player), keyframes, renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create an instance of KeyframeAnimationDispatcher with a composed timeline.
+     *
+     * @param player The player who will experience the animation.
+     * @param timeline The timeline to play, on its own tick.
+     * @param renderer The renderer for keyframe effects.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher of(final Player player, final KeyframeTimeline timeline,
+                                                 final KeyframeRenderer renderer, final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.player(player), timeline, renderer, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts one timeline to a group of players.
+     * Each frame is built once and sent to every member; members who go offline drop out
+     * without stopping the timeline for the others.
+     *
+     * @param players The players who will experience the animation, captured on each dispatch.
+     * @param config The configuration object containing animation setup.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Collection<? extends Player> players,
+                                                        final KeyframeAnimationMessageConfig config,
+                                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                                        final KeyframeAnimationPlugin plugin) {
+        final KeyframeAnimationEngine engine = KeyframeAnimationEngine.of(plugin);
+        return compiled(() -> KeyframeAudience.players(players), engine.warmup().compiled(config, tickDelay),
+                renderer, tickDelay, engine);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts one timeline of given keyframes to a group of players.
+     * Each frame is built once and sent to every member; members who go offline drop out
+     * without stopping the timeline for the others.
+     *
+     * @param players The players who will experience the animation, captured on each dispatch.
+     * @param keyframes The list of pre-created keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Collection<? extends Player> players,
+                                                        final List<Keyframe> keyframes,
+                                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                                        final KeyframeAnimationPlugin plugin) {
+        return broadcast(players, FrameSequence.of(keyframes), renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts one timeline of a frame sequence to a group of players.
+     * Each frame is built once and sent to every member; members who go offline drop out
+     * without stopping the timeline for the others.
+     *
+     * @param players The players who will experience the animation, captured on each dispatch.
+     * @param keyframes The sequence of pre-created keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Collection<? extends Player> players,
+                                                        final FrameSequence keyframes,
+                                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                                        final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.players(players), keyframes, renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts a composed timeline to a group of players.
+     *
+     * @param players The players who will experience the animation, captured on each dispatch.
+     * @param timeline The timeline to play, on its own tick.
+     * @param renderer The renderer for keyframe effects.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Collection<? extends Player> players,
+                                                        final KeyframeTimeline timeline,
+                                                        final KeyframeRenderer renderer,
+                                                        final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.players(players), timeline, renderer, plugin);
     }
 
     /**
-     * Creates a list of keyframes based on the given configuration.
+     * Factory method to create a dispatcher that broadcasts one timeline to an Adventure audience group,
+     * such as the server or a world. The audience resolves its members on every frame.
      *
-     * @param config Configuration containing the parameters for keyframe generation.
-     * @return A list of generated keyframes.
+     * @param audience The audience which will experience the animation.
+     * @param config The configuration object containing animation setup.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Audience audience,
+                                                        final KeyframeAnimationMessageConfig config,
+                                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                                        final KeyframeAnimationPlugin plugin) {
+        final KeyframeAnimationEngine engine = KeyframeAnimationEngine.of(plugin);
+        return compiled(() -> KeyframeAudience.forwarding(audience), engine.warmup().compiled(config, tickDelay),
+                renderer, tickDelay, engine);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts one timeline of given keyframes to an Adventure
+     * audience group, such as the server or a world. The audience resolves its members on every frame.
+     *
+     * @param audience The audience which will experience the animation.
+     * @param keyframes The list of pre-created keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Audience audience, final List<Keyframe> keyframes,
+                                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                                        final KeyframeAnimationPlugin plugin) {
+        return broadcast(audience, FrameSequence.of(keyframes), renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts one timeline of a frame sequence to an Adventure
+     * audience group, such as the server or a world. The audience resolves its members on every frame.
+     *
+     * @param audience The audience which will experience the animation.
+     * @param keyframes The sequence of pre-created keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher broadcast(final Audience audience, final FrameSequence keyframes,
+                                                        final KeyframeRenderer renderer, final Duration tickDelay,
+                                                        final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.forwarding(audience), keyframes, renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher that plays one timeline of a frame sequence in lockstep for the members
+     * of a shared audience. The timeline is advanced once per tick for all members; players who join while it
+     * plays start from its current frame. Dispatch it once per shared audience.
+     *
+     * @param audience The shared audience, whose members may change while the timeline plays.
+     * @param keyframes The sequence of pre-created keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher shared(final KeyframeSharedAudience audience, final FrameSequence keyframes,
+                                                     final KeyframeRenderer renderer, final Duration tickDelay,
+                                                     final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.shared(audience), keyframes, renderer, tickDelay, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher that plays a composed timeline in lockstep for the members of a shared
+     * audience. Every track follows the members on its own channel.
+     *
+     * @param audience The shared audience, whose members may change while the timeline plays.
+     * @param timeline The timeline to play, on its own tick.
+     * @param renderer The renderer for keyframe effects.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    public static KeyframeAnimationDispatcher shared(final KeyframeSharedAudience audience, final KeyframeTimeline timeline,
+                                                     final KeyframeRenderer renderer,
+                                                     final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.shared(audience), timeline, renderer, plugin);
+    }
+
+    /**
+     * Factory method to create a dispatcher for keyframes that were already compiled, such as the
+     * definitions of a {@link KeyframeAnimationLibrary}.
+     *
+     * @param audienceFactory Creates the audience of each dispatched animation.
+     * @param keyframes The compiled keyframes.
+     * @param renderer The renderer for keyframe effects.
+     * @param tickDelay The fixed delay between keyframe animations.
+     * @param engine The engine that plays the animation.
+     * @return A new KeyframeAnimationDispatcher instance.
+     */
+    static KeyframeAnimationDispatcher compiled(final Supplier<KeyframeAudience> audienceFactory,
+                                                final CompiledFrameSequence keyframes, final KeyframeRenderer renderer,
+                                                final Duration tickDelay, final KeyframeAnimationEngine engine) {
+        return new KeyframeAnimationDispatcher(audienceFactory, LinkedHashMap.of(renderer.channel(), keyframes),
+                LinkedHashMap.of(renderer.channel(), renderer), tickDelay, engine, KeyframeMetrics.UNNAMED_TYPE,
+                KeyframePriority.NORMAL);
+    }
+
+    /**
+     * Factory method to create a dispatcher that broadcasts a composed timeline to an Adventure audience group,
+     * such as the server or a world. The audience resolves its members on every frame.
+     *
+     * @param audience The audience which will experience the animation.
+     * @param timeline The timeline to play, on its own tick.
+     * @param renderer The renderer for keyframe effects.
+     * @return A new KeyframeAnimationDispatcher instance.
      */
-    private static List<Keyframe> createKeyframes(final KeyframeAnimationMessageConfig config) {
-        return List.range(0, config.numberOfFrames())
-                .map(i -> new Keyframe(config.titleMessage(), config.subtitleMessage() + config.character()));
+    public static KeyframeAnimationDispatcher broadcast(final Audience audience, final KeyframeTimeline timeline,
+                                                        final KeyframeRenderer renderer,
+                                                        final KeyframeAnimationPlugin plugin) {
+        return new KeyframeAnimationDispatcher(() -> KeyframeAudience.forwarding(audience), timeline, renderer, plugin);
     }
 
     /**
-     * Dispatches the keyframe animation task to execute based on the defined sequence and timing.
+     * Returns a dispatcher for the same animation that reports the given type in the engine metrics,
+     * so active animations and their frames can be told apart per animation kind.
+     *
+     * @param type The animation type, such as {@code "countdown"}.
+     * @return A new KeyframeAnimationDispatcher instance sharing the compiled keyframes of this one.
      */
-    public void dispatch() {
-        final KeyframeAnimationTask animationTask = KeyframeAnimationTask.create(player, keyframes, tickDelay);
-        animationTask.runTaskTimerAsynchronously(plugin, 0, tickDelay.toMillis() / 50);
+    public KeyframeAnimationDispatcher named(final String type) {
+        return new KeyframeAnimationDispatcher(audienceFactory, tracks, renderers, tickDelay, engine, type, priority);
+    }
+
+    /**
+     * Returns a dispatcher for the same animation with the given priority, which decides how the animation
+     * is degraded when the server is under load. Dispatchers use {@link KeyframePriority#NORMAL} unless configured.
+     *
+     * @param priority The priority of the animation.
+     * @return A new KeyframeAnimationDispatcher instance sharing the compiled keyframes of this one.
+     */
+    public KeyframeAnimationDispatcher priority(final KeyframePriority priority) {
+        return new KeyframeAnimationDispatcher(audienceFactory, tracks, renderers, tickDelay, engine, type, priority);
+    }
+
+    /**
+     * Returns a dispatcher for the same animation that renders the frames of a timeline shown on the channel
+     * of the given renderer with it, such as a boss bar renderer with a custom color.
+     *
+     * @param renderer The renderer for the frames of its channel.
+     * @return A new KeyframeAnimationDispatcher instance sharing the compiled keyframes of this one.
+     */
+    public KeyframeAnimationDispatcher renderer(final KeyframeRenderer renderer) {
+        return new KeyframeAnimationDispatcher(audienceFactory, tracks, renderers.put(renderer.channel(), renderer),
+                tickDelay, engine, type, priority);
+    }
+
+    /**
+     * Dispatches the keyframe animation task by enqueueing it into the plugin's shared animation engine,
+     * which advances it based on the defined sequence and timing. The keyframes are compiled once on a
+     * background worker when the dispatcher is created, so neither the calling thread nor repeated
+     * dispatches parse them again. Every dispatch plays its own view of streaming tracks, so dispatches
+     * that run at the same time keep their own look-ahead.
+     *
+     * @return A handle to cancel the animation or to await its end.
+     */
+    public KeyframeAnimationHandle dispatch() {
+        final List<KeyframeAnimationTask> tasks = tracks.toList().map(track -> KeyframeAnimationTask.create(
+                audienceFactory.get(), track._1, type, priority, track._2.forPlayback(),
+                renderers.get(track._1).getOrElse(track._1::defaultRenderer).forPlayback(), tickDelay));
+
+        tasks.forEach(engine::enqueue);
+        return KeyframeAnimationHandle.of(tasks, engine);
     }
 }
@@ -0,0 +1,521 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.control.Option;
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A shared animation engine that drives every active keyframe animation of a plugin from a single timer.
+ *
+ * <p>Dispatchers only enqueue their tasks into the engine. Once per server tick the engine thread drains the
+ * pending queue and advances a {@link KeyframeTimingWheel} to the current {@link KeyframeClock} time,
+ * so only the animations whose next frame is due are touched. Due frames are staged on a
+ * {@link KeyframeSendStage}, which the main thread drains once per tick to send them all in one pass,
+ * so no Bukkit API is called off the main thread. The Bukkit scheduler holds exactly two entries per
+ * plugin, an async engine timer and a sync send timer, no matter how many animations are playing.</p>
+ *
+ * <p>Single-player animations are tracked per player and {@link KeyframeChannel} in a registry, which
+ * applies the channel's {@link KeyframeConflictPolicy} when a second animation arrives for a busy channel.
+ * Dispatches arriving within the same tick are admitted before any of them starts, so a burst of
+ * replacing dispatches coalesces into the last one.</p>
+ *
+ * <p>Animations never poll whether their player is still online. The engine listens for
+ * {@link org.bukkit.event.player.PlayerQuitEvent}s and retires every animation of a player who quit on its
+ * next tick, and cancellations requested through a {@link KeyframeAnimationHandle} are applied the same way.</p>
+ *
+ * <p>Playback follows the wall clock, so late frames are skipped and animations finish on time even when
+ * ticks are late. The main thread tick time is measured continuously; when it exceeds the budget of the
+ * {@link KeyframeDegradationPolicy}, animations are degraded by their {@link KeyframePriority}.</p>
+ *
+ * <p>The engine records {@link KeyframeMetrics} while it runs and publishes them to the configured
+ * {@link KeyframeMetricsSink} once per interval.</p>
+ */
+public final class KeyframeAnimationEngine {
+
+    private static final Map<KeyframeAnimationPlugin, KeyframeAnimationEngine> ENGINES = new ConcurrentHashMap<>();
+    private static final long WHEEL_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int WHEEL_SIZE = 512;
+
+    private final Option<KeyframeAnimationPlugin> plugin;
+    private final KeyframeClock clock;
+    private final Queue<KeyframeAnimationTask> pendingTasks;
+    private final Queue<KeyframeAnimationTask> cancelledTasks;
+    private final Queue<UUID> quitPlayers;
+    private final Set<KeyframeAnimationTask> liveTasks;
+    private final KeyframeQuitListener quitListener;
+    private final KeyframeTimingWheel timingWheel;
+    private final KeyframeAnimationRegistry registry;
+    private final List<KeyframeAnimationTask> startingTasks;
+    private final Consumer<KeyframeTimingWheel.Entry> dueTaskHandler;
+    private final KeyframeMetrics metrics;
+    private final KeyframeSendStage sendStage;
+    private final KeyframeWarmup warmup;
+    private final AtomicBoolean started;
+    private final boolean[] pausedByPriority;
+    private final int[] frameDivisorByPriority;
+    private volatile KeyframeDegradationPolicy degradationPolicy;
+    private KeyframeDegradationPolicy appliedPolicy;
+    private KeyframeLoadLevel loadLevel;
+    private volatile BukkitRunnable timer;
+    private volatile BukkitRunnable sendTimer;
+    private long now;
+
+    private KeyframeAnimationEngine(final Option<KeyframeAnimationPlugin> plugin, final KeyframeClock clock) {
+        this.plugin = plugin;
+        this.clock = clock;
+        this.pendingTasks = new ConcurrentLinkedQueue<>();
+        this.cancelledTasks = new ConcurrentLinkedQueue<>();
+        this.quitPlayers = new ConcurrentLinkedQueue<>();
+        this.liveTasks = ConcurrentHashMap.newKeySet();
+        this.quitListener = new KeyframeQuitListener(this);
+        this.timingWheel = new KeyframeTimingWheel(WHEEL_TICK_NANOS, WHEEL_SIZE, clock.nanoTime());
+        this.registry = new KeyframeAnimationRegistry(this::retireSuperseded);
+        this.startingTasks = new ArrayList<>();
+        this.dueTaskHandler = entry -> advanceDueTask((KeyframeAnimationTask) entry);
+        this.metrics = new KeyframeMetrics(clock.nanoTime());
+        this.sendStage = new KeyframeSendStage(clock, metrics);
+        this.warmup = new KeyframeWarmup(clock);
+        this.pausedByPriority = new boolean[KeyframePriority.values().length];
+        this.frameDivisorByPriority = new int[KeyframePriority.values().length];
+        this.degradationPolicy = KeyframeDegradationPolicy.defaults();
+        applyLoadLevel(degradationPolicy, KeyframeLoadLevel.NORMAL);
+        this.started = new AtomicBoolean(false);
+    }
+
+    /**
+     * Returns the engine owned by the given plugin, creating it on first use with the system clock.
+     *
+     * @param plugin the plugin that owns the engine timer.
+     * @return the shared engine of the plugin.
+     */
+    public static KeyframeAnimationEngine of(final KeyframeAnimationPlugin plugin) {
+        return of(plugin, KeyframeClock.system());
+    }
+
+    /**
+     * Returns the engine owned by the given plugin, creating it on first use with the given clock.
+     * The clock is ignored if the plugin already owns an engine.
+     *
+     * @param plugin the plugin that owns the engine timer.
+     * @param clock the time source used to compute frame deadlines.
+     * @return the shared engine of the plugin.
+     */
+    public static KeyframeAnimationEngine of(final KeyframeAnimationPlugin plugin, final KeyframeClock clock) {
+        return ENGINES.computeIfAbsent(plugin, owner -> new KeyframeAnimationEngine(Option.some(owner), clock));
+    }
+
+    /**
+     * Creates an engine that is not bound to a plugin and never starts a Bukkit timer. It is advanced
+     * only by calling {@link #tick()}, which also sends the staged frames in place, so benchmarks and
+     * simulations can drive it outside a server.
+     *
+     * @param clock the time source used to compute frame deadlines.
+     * @return a new headless engine.
+     */
+    static KeyframeAnimationEngine headless(final KeyframeClock clock) {
+        return new KeyframeAnimationEngine(Option.none(), clock);
+    }
+
+    /**
+     * Enqueues an animation task to be picked up on the next engine tick.
+     * This method is safe to call from any thread.
+     *
+     * @param task the task to register.
+     */
+    void enqueue(final KeyframeAnimationTask task) {
+        liveTasks.add(task);
+        task.completion().whenComplete((outcome, e) -> liveTasks.remove(task));
+        pendingTasks.add(task);
+        start();
+    }
+
+    /**
+     * Requests a task to be cancelled on the next engine tick. This method is safe to call from any thread.
+     *
+     * @param task the task to cancel, already completed as cancelled.
+     */
+    void cancel(final KeyframeAnimationTask task) {
+        cancelledTasks.add(task);
+    }
+
+    /**
+     * Requests every animation of a player who quit to be retired on the next engine tick.
+     * This method is safe to call from any thread.
+     *
+     * @param playerId the unique id of the player.
+     */
+    void playerQuit(final UUID playerId) {
+        quitPlayers.add(playerId);
+    }
+
+    /**
+     * Starts the async engine timer and the main-thread send timer if they are not running yet.
+     */
+    private void start() {
+        if (plugin.isEmpty() || !started.compareAndSet(false, true)) {
+            return;
+        }
+
+        final BukkitRunnable engineTimer = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        };
+
+        final BukkitRunnable mainThreadSendTimer = new BukkitRunnable() {
+            @Override
+            public void run() {
+                sendStage.drain();
+            }
+        };
+
+        final BukkitRunnable quitListenerRegistration = new BukkitRunnable() {
+            @Override
+            public void run() {
+                Bukkit.getPluginManager().registerEvents(quitListener, plugin.get());
+            }
+        };
+
+        engineTimer.runTaskTimerAsynchronously(plugin.get(), 0L, 1L);
+        mainThreadSendTimer.runTaskTimer(plugin.get(), 0L, 1L);
+        quitListenerRegistration.runTask(plugin.get());
+        this.timer = engineTimer;
+        this.sendTimer = mainThreadSendTimer;
+    }
+
+    /**
+     * Advances the engine to the current clock time: retires cancelled animations and those of players who quit,
+     * registers newly dispatched tasks and stages only the animations whose next frame is due.
+     * A headless engine sends the staged frames right away.
+     */
+    void tick() {
+        now = clock.nanoTime();
+
+        final KeyframeDegradationPolicy policy = degradationPolicy;
+        final KeyframeLoadLevel currentLevel = policy.levelOf(sendStage.averageTickNanos());
+        if (currentLevel != loadLevel || policy != appliedPolicy) {
+            applyLoadLevel(policy, currentLevel);
+        }
+
+        drainCancelledTasks();
+        drainQuitPlayers();
+        timingWheel.advance(now, dueTaskHandler);
+        drainPendingTasks();
+        if (plugin.isEmpty()) {
+            sendStage.drain();
+        }
+
+        metrics.publishIfDue(now, sendStage.averageTickNanos(), loadLevel);
+    }
+
+    /**
+     * Switches the engine to a load level and precomputes how every priority is degraded at it.
+     *
+     * @param policy the degradation policy to apply.
+     * @param level the new load level.
+     */
+    private void applyLoadLevel(final KeyframeDegradationPolicy policy, final KeyframeLoadLevel level) {
+        for (final KeyframePriority priority : KeyframePriority.values()) {
+            pausedByPriority[priority.ordinal()] = policy.pauses(priority, level);
+            frameDivisorByPriority[priority.ordinal()] = policy.frameDivisor(priority, level);
+        }
+
+        appliedPolicy = policy;
+        loadLevel = level;
+    }
+
+    /**
+     * Retires the tasks cancelled through their handles since the previous tick. Tasks that are still pending
+     * or queued are only marked, and are dropped once the engine reaches them.
+     */
+    private void drainCancelledTasks() {
+        KeyframeAnimationTask task;
+        while ((task = cancelledTasks.poll()) != null) {
+            if (task.stop() && task.isScheduled()) {
+                timingWheel.cancel(task);
+                metrics.animationEnded(task.type(), false);
+                retire(task);
+            }
+        }
+    }
+
+    /**
+     * Retires the playing and queued animations of every player who quit since the previous tick, including
+     * the ones dispatched to the player but not admitted yet.
+     */
+    private void drainQuitPlayers() {
+        UUID playerId;
+        while ((playerId = quitPlayers.poll()) != null) {
+            registry.removePlayer(playerId).forEach(this::retireAbandoned);
+            sendStage.playerQuit(playerId);
+
+            for (final KeyframeAnimationTask pendingTask : pendingTasks) {
+                if (pendingTask.owner().contains(playerId)) {
+                    pendingTask.complete(KeyframeAnimationOutcome.AUDIENCE_LEFT);
+                    pendingTask.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Admits all tasks enqueued since the previous tick, then starts the ones that were neither queued,
+     * dropped nor superseded by a later dispatch, showing their first frame right away.
+     */
+    private void drainPendingTasks() {
+        KeyframeAnimationTask task;
+        while ((task = pendingTasks.poll()) != null) {
+            if (task.isCancelled()) {
+                drop(task);
+            } else if (registry.admit(task)) {
+                startingTasks.add(task);
+            } else if (task.isCancelled()) {
+                drop(task);
+            }
+        }
+
+        for (int index = 0; index < startingTasks.size(); index++) {
+            final KeyframeAnimationTask startingTask = startingTasks.get(index);
+            if (!startingTask.isCancelled()) {
+                startTask(startingTask);
+            } else {
+                drop(startingTask);
+            }
+        }
+
+        startingTasks.clear();
+    }
+
+    /**
+     * Starts the frame schedule of a task and shows its first frame.
+     *
+     * @param task the task to start.
+     */
+    private void startTask(final KeyframeAnimationTask task) {
+        task.start(now, sendStage);
+        metrics.animationStarted(task.type());
+        advanceDueTask(task);
+    }
+
+    /**
+     * Updates a task whose frame is due and puts it back on the wheel at its next fixed-rate deadline,
+     * degraded according to its priority and the current load level, or retires it once it is done.
+     *
+     * @param task the due task.
+     */
+    private void advanceDueTask(final KeyframeAnimationTask task) {
+        final int priority = task.priority().ordinal();
+
+        if (task.tick(now, pausedByPriority[priority])) {
+            timingWheel.schedule(task, task.nextWakeDeadline(frameDivisorByPriority[priority]));
+            return;
+        }
+
+        metrics.animationEnded(task.type(), task.isCompleted());
+        task.complete(task.isCompleted() ? KeyframeAnimationOutcome.COMPLETED : KeyframeAnimationOutcome.AUDIENCE_LEFT);
+        retire(task);
+    }
+
+    /**
+     * Records a task that never started.
+     *
+     * @param task the dropped task.
+     */
+    private void drop(final KeyframeAnimationTask task) {
+        task.complete(KeyframeAnimationOutcome.DROPPED);
+        metrics.animationDropped();
+    }
+
+    /**
+     * Releases the channel of a finished task and starts the animation queued behind it.
+     *
+     * @param task the finished task.
+     */
+    private void retire(final KeyframeAnimationTask task) {
+        registry.release(task).peek(this::startTask);
+    }
+
+    /**
+     * Retires a playing task immediately because a newer dispatch preempted its channel. The newer task takes
+     * over what the renderer of the superseded one still shows, such as a boss bar.
+     *
+     * @param task the superseded task.
+     * @param successor the task that preempted it.
+     */
+    private void retireSuperseded(final KeyframeAnimationTask task, final KeyframeAnimationTask successor) {
+        task.complete(KeyframeAnimationOutcome.REPLACED);
+        task.cancel();
+        successor.replaces(task);
+
+        if (task.isScheduled()) {
+            timingWheel.cancel(task);
+            metrics.animationEnded(task.type(), false);
+        }
+    }
+
+    /**
+     * Retires a playing or queued task of a player who quit.
+     *
+     * @param task the abandoned task, no longer held by the registry.
+     */
+    private void retireAbandoned(final KeyframeAnimationTask task) {
+        task.complete(KeyframeAnimationOutcome.AUDIENCE_LEFT);
+        task.cancel();
+
+        if (task.isScheduled()) {
+            timingWheel.cancel(task);
+            metrics.animationEnded(task.type(), false);
+        } else {
+            metrics.animationDropped();
+        }
+    }
+
+    /**
+     * Sets what happens when an animation is dispatched to a player channel that is already playing one.
+     * Channels replace the playing animation unless configured otherwise. Safe to call from any thread.
+     *
+     * @param channel the channel to configure.
+     * @param policy the conflict policy of the channel.
+     * @return this engine, for chaining.
+     */
+    public KeyframeAnimationEngine conflictPolicy(final KeyframeChannel channel, final KeyframeConflictPolicy policy) {
+        registry.conflictPolicy(channel, policy);
+        return this;
+    }
+
+    /**
+     * Sets how animations are degraded when the main thread tick time exceeds its budget.
+     * Safe to call from any thread; takes effect on the next engine tick.
+     *
+     * @param policy the degradation policy, {@link KeyframeDegradationPolicy#defaults()} unless configured.
+     * @return this engine, for chaining.
+     */
+    public KeyframeAnimationEngine degradationPolicy(final KeyframeDegradationPolicy policy) {
+        this.degradationPolicy = policy;
+        return this;
+    }
+
+    /**
+     * Sets how many packets and bytes animations may send, per player and server-wide. Frames over the budget are
+     * held back, and only the latest frame of a held back animation is sent once the budget allows it.
+     * Safe to call from any thread; takes effect on the next main thread tick.
+     *
+     * @param budget the bandwidth budget, {@link KeyframeBandwidthBudget#unlimited()} unless configured.
+     * @return this engine, for chaining.
+     */
+    public KeyframeAnimationEngine bandwidthBudget(final KeyframeBandwidthBudget budget) {
+        sendStage.bandwidthBudget(budget);
+        return this;
+    }
+
+    /**
+     * Publishes the engine metrics to the given sink once per second.
+     *
+     * @param sink the receiving sink.
+     * @return this engine, for chaining.
+     */
+    public KeyframeAnimationEngine metricsSink(final KeyframeMetricsSink sink) {
+        return metricsSink(sink, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Publishes the engine metrics to the given sink once per interval. Safe to call from any thread.
+     *
+     * @param sink the receiving sink.
+     * @param interval the publishing interval.
+     * @return this engine, for chaining.
+     */
+    public KeyframeAnimationEngine metricsSink(final KeyframeMetricsSink sink, final Duration interval) {
+        metrics.sink(sink, interval);
+        return this;
+    }
+
+    /**
+     * Returns the warm-up of this engine, which compiles animations ahead of their first dispatch.
+     *
+     * @return the warm-up of the engine.
+     */
+    public KeyframeWarmup warmup() {
+        return warmup;
+    }
+
+    /**
+     * Determines if a player currently has an animation playing on the given channel.
+     * Safe to call from any thread, including async event handlers.
+     *
+     * @param playerId the unique id of the player.
+     * @param channel the channel to check.
+     * @return true if the channel is occupied.
+     */
+    public boolean isAnimating(final UUID playerId, final KeyframeChannel channel) {
+        return registry.isAnimating(playerId, channel);
+    }
+
+    /**
+     * Returns the number of players whose bandwidth the engine tracks under its bandwidth budget.
+     *
+     * @return the number of players with a token bucket.
+     */
+    int bandwidthTrackedPlayers() {
+        return sendStage.trackedPlayers();
+    }
+
+    /**
+     * Returns the number of animations currently registered in the engine, including pending ones.
+     *
+     * @return the number of active animations.
+     */
+    public int activeAnimations() {
+        return timingWheel.size() + pendingTasks.size();
+    }
+
+    /**
+     * Stops the engine timers and drops every registered animation, whose handles complete as cancelled.
+     * Intended to be called from the plugin's {@code onDisable}: called on the main thread, it first sends the end
+     * of every animation that showed a frame, so no boss bar or title is left on the players' screens.
+     */
+    public void shutdown() {
+        plugin.peek(owner -> ENGINES.remove(owner, this));
+
+        if (timer != null) {
+            timer.cancel();
+        }
+
+        warmup.close();
+        pendingTasks.clear();
+        for (final KeyframeAnimationTask task : liveTasks) {
+            task.stop();
+        }
+
+        if (plugin.isEmpty() || Bukkit.isPrimaryThread()) {
+            sendStage.drain();
+        }
+
+        if (sendTimer != null) {
+            sendTimer.cancel();
+        }
+
+        if (started.get()) {
+            HandlerList.unregisterAll(quitListener);
+        }
+
+        for (final KeyframeAnimationTask task : liveTasks) {
+            task.complete(KeyframeAnimationOutcome.CANCELLED);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * A handle to a dispatched animation, which can cancel it and tells when and how it ended.
+ *
+ * <p>A {@link KeyframeTimeline} with tracks on several channels is controlled as one animation: cancelling the
+ * handle cancels every track, and the handle completes once all tracks ended. Its outcome is the outcome of the
+ * first track that did not complete, or {@link KeyframeAnimationOutcome#COMPLETED} if all of them did.</p>
+ *
+ * <p>The completion stage is completed on the thread that ended the animation, usually the engine thread,
+ * so callbacks that touch the Bukkit API should switch to the main thread first.</p>
+ */
+public final class KeyframeAnimationHandle {
+
+    private final List<KeyframeAnimationTask> tasks;
+    private final KeyframeAnimationEngine engine;
+    private final CompletableFuture<KeyframeAnimationOutcome> completion;
+
+    private KeyframeAnimationHandle(final List<KeyframeAnimationTask> tasks, final KeyframeAnimationEngine engine,
+                                    final CompletableFuture<KeyframeAnimationOutcome> completion) {
+        this.tasks = tasks;
+        this.engine = engine;
+        this.completion = completion;
+    }
+
+    /**
+     * Factory method to create a handle for the tasks of one dispatch.
+     *
+     * @param tasks the tasks of the dispatch, one per channel.
+     * @param engine the engine playing the tasks.
+     * @return a new KeyframeAnimationHandle instance.
+     */
+    static KeyframeAnimationHandle of(final List<KeyframeAnimationTask> tasks, final KeyframeAnimationEngine engine) {
+        if (tasks.size() == 1) {
+            return new KeyframeAnimationHandle(tasks, engine, tasks.head().completion());
+        }
+
+        final CompletableFuture<KeyframeAnimationOutcome> all = CompletableFuture
+                .allOf(tasks.<CompletableFuture<?>>map(KeyframeAnimationTask::completion).toJavaArray(CompletableFuture<?>[]::new))
+                .thenApply(ignored -> tasks.map(task -> task.completion().join())
+                        .find(outcome -> outcome != KeyframeAnimationOutcome.COMPLETED)
+                        .getOrElse(KeyframeAnimationOutcome.COMPLETED));
+
+        return new KeyframeAnimationHandle(tasks, engine, all);
+    }
+
+    /**
+     * Cancels the animation. Frames already sent stay, and the renderer closes the timeline, so a boss bar
+     * is hidden. Safe to call from any thread; the engine retires the animation on its next tick.
+     *
+     * @return true if the animation was still playing or waiting to start.
+     */
+    public boolean cancel() {
+        boolean cancelled = false;
+        for (final KeyframeAnimationTask task : tasks) {
+            if (task.complete(KeyframeAnimationOutcome.CANCELLED)) {
+                engine.cancel(task);
+                cancelled = true;
+            }
+        }
+
+        return cancelled;
+    }
+
+    /**
+     * Returns a stage that completes with the outcome of the animation once it ended.
+     *
+     * @return the completion stage of the animation.
+     */
+    public CompletionStage<KeyframeAnimationOutcome> completion() {
+        return completion.minimalCompletionStage();
+    }
+
+    /**
+     * Determines if the animation ended, whichever way.
+     *
+     * @return true if the animation ended.
+     */
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeAnimationHandle{" +
+                "tracks=" + tasks.size() +
+                ", outcome=" + (completion.isDone() ? completion.join() : "playing") +
+                '}';
+    }
+}
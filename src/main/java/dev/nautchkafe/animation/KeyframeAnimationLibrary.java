@@ -0,0 +1,334 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A library of animations defined in YAML or JSON files, one animation per file, named after the file.
+ *
+ * <p>The frames of every animation are kept in a compact {@link KeyframeStore}, which shares equal titles and
+ * subtitles between all frames and animations. All files are read and parsed in parallel on the background workers when the library is loaded.
+ * Once {@link #watch() watched}, edited files are picked up automatically: only the files whose content
+ * changed are parsed again, and the new definition replaces the old one in a single step. Animations that
+ * are already playing keep the keyframes they were started with and finish on the old version. A file that
+ * fails to load is logged and keeps its previous definition, so a typo never takes an animation away.</p>
+ *
+ * <pre>
+ * {@code
+ * KeyframeAnimationLibrary library = KeyframeAnimationLibrary.load(plugin).watch();
+ * library.definition("halloween-intro")
+ *         .peek(definition -> definition.dispatcher(player, KeyframeRenderer.miniMessageRenderer(), plugin).dispatch());
+ * }
+ * </pre>
+ */
+public final class KeyframeAnimationLibrary implements AutoCloseable {
+
+    private static final String ANIMATIONS_DIRECTORY = "animations";
+    private static final long RELOAD_QUIET_PERIOD_MILLIS = 200L;
+
+    private final Path directory;
+    private final KeyframeStore store;
+    private final Map<String, KeyframeAnimationDefinition> definitions;
+    private volatile WatchService watchService;
+
+    private KeyframeAnimationLibrary(final Path directory, final KeyframeStore store) {
+        this.directory = directory;
+        this.store = store;
+        this.definitions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Loads every animation in the {@code animations} folder of the plugin's data folder, creating the folder if needed.
+     *
+     * @param plugin the plugin whose data folder holds the animations.
+     * @return a new loaded KeyframeAnimationLibrary instance.
+     */
+    public static KeyframeAnimationLibrary load(final KeyframeAnimationPlugin plugin) {
+        return load(plugin.getDataFolder().toPath().resolve(ANIMATIONS_DIRECTORY));
+    }
+
+    /**
+     * Loads every animation in the given folder, creating the folder if needed.
+     *
+     * @param directory the folder holding the animation files.
+     * @return a new loaded KeyframeAnimationLibrary instance.
+     */
+    public static KeyframeAnimationLibrary load(final Path directory) {
+        return load(directory, KeyframeStore.onHeap());
+    }
+
+    /**
+     * Loads every animation in the given folder into the given store, creating the folder if needed.
+     *
+     * @param directory the folder holding the animation files.
+     * @param store the store holding the frames, such as an {@link KeyframeStore#offHeap() off-heap} one.
+     * @return a new loaded KeyframeAnimationLibrary instance.
+     */
+    public static KeyframeAnimationLibrary load(final Path directory, final KeyframeStore store) {
+        final KeyframeAnimationLibrary library = new KeyframeAnimationLibrary(directory, store);
+        library.reloadAll();
+        return library;
+    }
+
+    /**
+     * Returns the current definition of an animation.
+     *
+     * @param id the animation id, the name of its file without the extension.
+     * @return the definition, or none if no such animation is loaded.
+     */
+    public Option<KeyframeAnimationDefinition> definition(final String id) {
+        return Option.of(definitions.get(id));
+    }
+
+    /**
+     * Returns the ids of all loaded animations.
+     *
+     * @return the loaded animation ids.
+     */
+    public List<String> ids() {
+        return List.ofAll(definitions.keySet()).sorted();
+    }
+
+    /**
+     * Returns the store holding the frames of the loaded animations, which reports their retained bytes.
+     *
+     * @return the frame store.
+     */
+    public KeyframeStore store() {
+        return store;
+    }
+
+    /**
+     * Returns the number of loaded animations.
+     *
+     * @return the animation count.
+     */
+    public int size() {
+        return definitions.size();
+    }
+
+    /**
+     * Reads every file in the folder again. Files whose content did not change are not parsed again,
+     * and animations whose file was removed are dropped.
+     *
+     * @return the ids of the animations that were added, changed or removed.
+     */
+    public synchronized List<String> reloadAll() {
+        final List<Path> files = definitionFiles();
+        final Set<String> ids = new LinkedHashSet<>();
+        files.forEach(file -> ids.add(KeyframeDefinitionReader.idOf(file)));
+
+        final List<String> removed = List.ofAll(definitions.keySet())
+                .filter(id -> !ids.contains(id));
+        removed.forEach(this::remove);
+
+        final List<CompletableFuture<Option<String>>> loads = files.map(file ->
+                KeyframeWorkers.supply(() -> loadFile(file))
+                        .exceptionally(e -> loadFile(file)));
+
+        return loads.flatMap(CompletableFuture::join).appendAll(removed);
+    }
+
+    /**
+     * Reads one file of the folder again, compiling it only if its content changed, or drops its animation
+     * if the file no longer exists.
+     *
+     * @param file the changed file.
+     * @return true if the animation was added, changed or removed.
+     */
+    public synchronized boolean reload(final Path file) {
+        final Path resolved = directory.resolve(file);
+        if (!KeyframeDefinitionReader.isDefinition(resolved)) {
+            return false;
+        }
+
+        if (Files.notExists(resolved)) {
+            return remove(KeyframeDefinitionReader.idOf(resolved));
+        }
+
+        return loadFile(resolved).isDefined();
+    }
+
+    /**
+     * Starts watching the folder on a background thread and reloads the files that change.
+     * Bursts of writes to the same file are applied once the folder stayed quiet for a moment.
+     *
+     * @return this library.
+     */
+    public synchronized KeyframeAnimationLibrary watch() {
+        if (watchService != null) {
+            return this;
+        }
+
+        final WatchService service;
+        try {
+            service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot watch animation folder " + directory, e);
+        }
+
+        watchService = service;
+        final Thread watcher = new Thread(() -> watchLoop(service), "keyframe-library-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        return this;
+    }
+
+    /**
+     * Stops watching the folder. Loaded definitions stay available.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService == null) {
+            return;
+        }
+
+        try {
+            watchService.close();
+        } catch (final IOException e) {
+            KeyframeLogger.logInfo("> Error closing animation folder watcher: " + e.getMessage());
+        }
+
+        watchService = null;
+    }
+
+    /**
+     * Collects changed files until the folder stayed quiet for the quiet period, then reloads them.
+     *
+     * @param service the watch service of the folder.
+     */
+    private void watchLoop(final WatchService service) {
+        try {
+            while (true) {
+                final Set<Path> changedFiles = new LinkedHashSet<>();
+                boolean overflow = collect(service.take(), changedFiles);
+
+                WatchKey key;
+                while ((key = service.poll(RELOAD_QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changedFiles);
+                }
+
+                reloadChanged(changedFiles, overflow);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException e) {
+            // closed by close(), so the watcher stops
+        }
+    }
+
+    /**
+     * Reloads the changed files, or the whole folder if events were lost. A failure, such as a folder that became
+     * unreadable, is logged and the folder is watched on.
+     *
+     * @param changedFiles the files changed since the previous reload.
+     * @param overflow true if events were lost and the whole folder must be read again.
+     */
+    private void reloadChanged(final Set<Path> changedFiles, final boolean overflow) {
+        try {
+            if (overflow) {
+                logReloaded(reloadAll());
+            } else {
+                logReloaded(List.ofAll(changedFiles)
+                        .filter(this::reload)
+                        .map(KeyframeDefinitionReader::idOf));
+            }
+        } catch (final RuntimeException e) {
+            KeyframeLogger.logInfo("> Error reloading animation folder: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds the files of a watch key's events to the changed files and re-arms the key.
+     *
+     * @param key the signalled key.
+     * @param changedFiles the files changed so far.
+     * @return true if events were lost and the whole folder must be read again.
+     */
+    private boolean collect(final WatchKey key, final Set<Path> changedFiles) {
+        boolean overflow = false;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else {
+                changedFiles.add((Path) event.context());
+            }
+        }
+
+        key.reset();
+        return overflow;
+    }
+
+    /**
+     * Reads a definition file and swaps in its new definition if the content changed.
+     *
+     * @param file the definition file.
+     * @return the id of the animation if it was added or changed.
+     */
+    private Option<String> loadFile(final Path file) {
+        final String id = KeyframeDefinitionReader.idOf(file);
+
+        try {
+            final byte[] content = KeyframeDefinitionReader.read(file);
+            final KeyframeAnimationDefinition current = definitions.get(id);
+            if (current != null && current.fingerprint() == KeyframeDefinitionReader.fingerprint(content)) {
+                return Option.none();
+            }
+
+            definitions.put(id, KeyframeDefinitionReader.parse(file, content, store));
+            return Option.some(id);
+        } catch (final Exception e) {
+            KeyframeLogger.logInfo("> Error loading animation " + file.getFileName() + ": " + e.getMessage());
+            return Option.none();
+        }
+    }
+
+    private boolean remove(final String id) {
+        store.remove(id);
+        return definitions.remove(id) != null;
+    }
+
+    private List<Path> definitionFiles() {
+        try {
+            Files.createDirectories(directory);
+            try (final Stream<Path> files = Files.list(directory)) {
+                return List.ofAll(files.filter(Files::isRegularFile).filter(KeyframeDefinitionReader::isDefinition));
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot read animation folder " + directory, e);
+        }
+    }
+
+    private void logReloaded(final List<String> ids) {
+        if (!ids.isEmpty()) {
+            KeyframeLogger.logInfo("> Reloaded animations: " + ids.mkString(", "));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeAnimationLibrary{" +
+                "directory=" + directory +
+                ", animations=" + definitions.size() +
+                '}';
+    }
+}
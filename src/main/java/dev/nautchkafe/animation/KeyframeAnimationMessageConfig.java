@@ -15,6 +15,7 @@ public final class KeyframeAnimationMessageConfig {
     private final String character;
     private final int numberOfFrames;
     private final List<Keyframe> customKeyframes;
+    private int hash;
 
     /**
      * @param titleMessage    The main message to be displayed in the keyframe animation.
@@ -100,9 +101,19 @@ public final class KeyframeAnimationMessageConfig {
                 Objects.equals(this.customKeyframes, that.customKeyframes);
     }
 
+    /**
+     * Hashes the configuration once and caches the result, as it keys cached keyframes and the custom keyframes
+     * would otherwise be walked on every lookup.
+     */
     @Override
     public int hashCode() {
-        return Objects.hash(titleMessage, subtitleMessage, character, numberOfFrames, customKeyframes);
+        int result = hash;
+        if (result == 0) {
+            result = Objects.hash(titleMessage, subtitleMessage, character, numberOfFrames, customKeyframes);
+            hash = result;
+        }
+
+        return result;
     }
 
     @Override
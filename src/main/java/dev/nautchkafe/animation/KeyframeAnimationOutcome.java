@@ -0,0 +1,32 @@
+package dev.nautchkafe.animation;
+
+/**
+ * Describes how a dispatched animation ended, as reported by its {@link KeyframeAnimationHandle}.
+ */
+public enum KeyframeAnimationOutcome {
+
+    /**
+     * The animation played its last frame.
+     */
+    COMPLETED,
+
+    /**
+     * The animation was cancelled through its handle or stopped by an engine shutdown.
+     */
+    CANCELLED,
+
+    /**
+     * A newer animation dispatched to the same player channel preempted the animation.
+     */
+    REPLACED,
+
+    /**
+     * The animation never started, because the conflict policy of its channel discarded it.
+     */
+    DROPPED,
+
+    /**
+     * The player quit, or every member of a broadcast went offline, before the animation finished.
+     */
+    AUDIENCE_LEFT
+}
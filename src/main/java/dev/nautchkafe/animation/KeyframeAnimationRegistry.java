@@ -0,0 +1,194 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/**
+ * A per-player registry of the animations occupying each {@link KeyframeChannel}.
+ *
+ * <p>Admission and release are performed by the engine thread, while lookups and policy changes
+ * are safe from any thread, including async event handlers, since the channel slots of a player are
+ * published through an {@link AtomicReferenceArray}. Animations without a single owning player, such as
+ * broadcasts, are not tracked.</p>
+ */
+final class KeyframeAnimationRegistry {
+
+    private final Map<UUID, AtomicReferenceArray<ChannelSlot>> slotsByPlayer;
+    private final Map<KeyframeChannel, KeyframeConflictPolicy> policies;
+    private final BiConsumer<KeyframeAnimationTask, KeyframeAnimationTask> supersededTaskHandler;
+
+    /**
+     * @param supersededTaskHandler receives every playing task that got preempted, and the task preempting it,
+     *                              so it can be retired.
+     */
+    KeyframeAnimationRegistry(final BiConsumer<KeyframeAnimationTask, KeyframeAnimationTask> supersededTaskHandler) {
+        this.slotsByPlayer = new ConcurrentHashMap<>();
+        this.policies = new ConcurrentHashMap<>();
+        this.supersededTaskHandler = supersededTaskHandler;
+    }
+
+    /**
+     * Sets the conflict policy of a channel.
+     *
+     * @param channel the channel to configure.
+     * @param policy the policy applied when a second animation targets a busy channel.
+     */
+    void conflictPolicy(final KeyframeChannel channel, final KeyframeConflictPolicy policy) {
+        policies.put(channel, policy);
+    }
+
+    /**
+     * Returns the conflict policy of a channel, {@link KeyframeConflictPolicy#REPLACE} unless configured.
+     *
+     * @param channel the channel to look up.
+     * @return the policy of the channel.
+     */
+    KeyframeConflictPolicy conflictPolicy(final KeyframeChannel channel) {
+        return policies.getOrDefault(channel, KeyframeConflictPolicy.REPLACE);
+    }
+
+    /**
+     * Admits a newly dispatched task according to the policy of its channel.
+     *
+     * @param task the dispatched task.
+     * @return true if the task should start playing now, false if it was queued or dropped.
+     */
+    boolean admit(final KeyframeAnimationTask task) {
+        if (task.owner().isEmpty()) {
+            return true;
+        }
+
+        final ChannelSlot slot = slotOf(task.owner().get(), task.channel());
+        if (slot.current == null) {
+            slot.current = task;
+            return true;
+        }
+
+        switch (conflictPolicy(task.channel())) {
+            case REPLACE -> {
+                final KeyframeAnimationTask superseded = slot.current;
+                slot.current = task;
+                supersededTaskHandler.accept(superseded, task);
+                return true;
+            }
+            case QUEUE -> {
+                slot.queued.add(task);
+                return false;
+            }
+            default -> {
+                task.cancel();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Releases the channel held by a finished task and hands over to the next queued task, if any.
+     *
+     * @param task the finished task.
+     * @return the queued task that takes over the channel and should start now.
+     */
+    Option<KeyframeAnimationTask> release(final KeyframeAnimationTask task) {
+        if (task.owner().isEmpty()) {
+            return Option.none();
+        }
+
+        final UUID owner = task.owner().get();
+        final AtomicReferenceArray<ChannelSlot> slots = slotsByPlayer.get(owner);
+        final ChannelSlot slot = slots == null ? null : slots.get(task.channel().ordinal());
+        if (slot == null || slot.current != task) {
+            return Option.none();
+        }
+
+        KeyframeAnimationTask next = slot.queued.poll();
+        while (next != null && next.isCancelled()) {
+            next = slot.queued.poll();
+        }
+
+        slot.current = next;
+        if (next == null) {
+            slots.set(task.channel().ordinal(), null);
+            removeIfIdle(owner, slots);
+        }
+
+        return Option.of(next);
+    }
+
+    /**
+     * Frees every channel of a player who left, without handing over to the queued tasks.
+     *
+     * @param playerId the unique id of the player.
+     * @return the playing and queued tasks of the player.
+     */
+    List<KeyframeAnimationTask> removePlayer(final UUID playerId) {
+        final AtomicReferenceArray<ChannelSlot> slots = slotsByPlayer.remove(playerId);
+        if (slots == null) {
+            return List.empty();
+        }
+
+        List<KeyframeAnimationTask> tasks = List.empty();
+        for (int channel = 0; channel < slots.length(); channel++) {
+            final ChannelSlot slot = slots.get(channel);
+            if (slot != null) {
+                tasks = tasks.prependAll(slot.queued);
+                if (slot.current != null) {
+                    tasks = tasks.prepend(slot.current);
+                }
+            }
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Determines if a player currently has an animation playing on the given channel.
+     *
+     * @param playerId the unique id of the player.
+     * @param channel the channel to check.
+     * @return true if the channel is occupied.
+     */
+    boolean isAnimating(final UUID playerId, final KeyframeChannel channel) {
+        final AtomicReferenceArray<ChannelSlot> slots = slotsByPlayer.get(playerId);
+        return slots != null && slots.get(channel.ordinal()) != null;
+    }
+
+    private ChannelSlot slotOf(final UUID playerId, final KeyframeChannel channel) {
+        final AtomicReferenceArray<ChannelSlot> slots = slotsByPlayer.computeIfAbsent(playerId,
+                ignored -> new AtomicReferenceArray<>(KeyframeChannel.values().length));
+
+        ChannelSlot slot = slots.get(channel.ordinal());
+        if (slot == null) {
+            slot = new ChannelSlot();
+            slots.set(channel.ordinal(), slot);
+        }
+
+        return slot;
+    }
+
+    private void removeIfIdle(final UUID playerId, final AtomicReferenceArray<ChannelSlot> slots) {
+        for (int channel = 0; channel < slots.length(); channel++) {
+            if (slots.get(channel) != null) {
+                return;
+            }
+        }
+
+        slotsByPlayer.remove(playerId, slots);
+    }
+
+    /**
+     * The animation occupying one channel of a player, and the animations waiting for it.
+     */
+    private static final class ChannelSlot {
+
+        private final Queue<KeyframeAnimationTask> queued = new ArrayDeque<>();
+        private KeyframeAnimationTask current;
+    }
+}
@@ -1,22 +1,28 @@
 package dev.nautchkafe.animation;
 
-import io.vavr.control.Option;
-
 import java.time.Duration;
-import java.time.Instant;
 import java.util.Objects;
 
 /**
- * A final class that schedules keyframe animations with specific delay intervals.
+ * A final class that schedules keyframe animations at a fixed rate on {@link System#nanoTime()} style deadlines.
+ *
+ * <p>Deadlines advance by exactly one period per frame, regardless of when the frame was actually shown,
+ * so playback does not drift. When the engine falls behind by more than one period, the missed periods
+ * are reported so the caller can skip the corresponding frames and stay in phase with wall time.</p>
  */
 final class KeyframeAnimationScheduler {
 
     private final Duration tickDelay;
-    private Instant lastFrameTime;
+    private final long periodNanos;
+    private long nextFrameDeadline;
 
     KeyframeAnimationScheduler(final Duration tickDelay) {
+        if (tickDelay.isNegative() || tickDelay.isZero()) {
+            throw new IllegalArgumentException("Tick delay must be positive: " + tickDelay);
+        }
+
         this.tickDelay = tickDelay;
-        this.lastFrameTime = Instant.now();
+        this.periodNanos = tickDelay.toNanos();
     }
 
     /**
@@ -30,30 +36,64 @@ final class KeyframeAnimationScheduler {
     }
 
     /**
-     * Updates the time of the last frame to the current time.
+     * Starts the schedule so that the first frame is due immediately.
+     *
+     * @param now the current clock value.
+     */
+    void start(final long now) {
+        this.nextFrameDeadline = now;
+    }
+
+    /**
+     * Moves the deadline to the next frame on the fixed-rate grid.
+     *
+     * @param now the current clock value.
+     * @return the number of frames that became due since the previous call, at least one.
+     */
+    int advance(final long now) {
+        final long lateness = now - nextFrameDeadline;
+        final long dueFrames = lateness <= 0 ? 1 : lateness / periodNanos + 1;
+
+        nextFrameDeadline += dueFrames * periodNanos;
+        return (int) Math.min(dueFrames, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Holds the schedule in place: the frame that is due now becomes due one period from now instead,
+     * so no frame is skipped once the schedule resumes.
+     *
+     * @param now the current clock value.
+     */
+    void postpone(final long now) {
+        this.nextFrameDeadline = now + periodNanos;
+    }
+
+    /**
+     * Gets the deadline of the frame the given number of frames after the next one.
+     *
+     * @param frames the number of frames after the next one.
+     * @return the clock value at which that frame is due.
      */
-    void withUpdatedFrameTime() {
-        this.lastFrameTime = Instant.now();
+    long frameDeadlineAfter(final int frames) {
+        return nextFrameDeadline + frames * periodNanos;
     }
 
     /**
-     * Determines if the frame should be updated based on the tick delay.
+     * Gets the deadline of the next frame.
      *
-     * @return true if the current time is greater than or equal to the last frame time plus tick delay.
+     * @return the clock value at which the next frame is due.
      */
-    boolean shouldUpdateFrame() {
-        return Option.of(calculateTimeSinceLastFrame())
-                .filter(duration -> duration.compareTo(tickDelay) >= 0)
-                .isDefined();
+    long nextFrameDeadline() {
+        return nextFrameDeadline;
     }
 
     /**
-     * Calculates the time elapsed since the last frame update.
+     * Gets the deadline of the latest frame that became due on the previous advance.
      *
-     * @return the duration since the last frame update.
+     * @return the clock value at which the current frame was due.
      */
-    private Duration calculateTimeSinceLastFrame() {
-        return Duration.between(lastFrameTime, Instant.now());
+    long currentFrameDeadline() {
+        return nextFrameDeadline - periodNanos;
     }
 
     /**
@@ -71,20 +111,19 @@ final class KeyframeAnimationScheduler {
         if (o == null || getClass() != o.getClass()) return false;
 
         KeyframeAnimationScheduler that = (KeyframeAnimationScheduler) o;
-        return Objects.equals(tickDelay, that.tickDelay) && Objects.equals(lastFrameTime, that.lastFrameTime);
+        return Objects.equals(tickDelay, that.tickDelay) && nextFrameDeadline == that.nextFrameDeadline;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(tickDelay, lastFrameTime);
+        return Objects.hash(tickDelay, nextFrameDeadline);
     }
 
     @Override
     public String toString() {
         return "KeyframeAnimationScheduler{" +
                 "tickDelay=" + tickDelay +
-                ", lastFrameTime=" + lastFrameTime +
+                ", nextFrameDeadline=" + nextFrameDeadline +
                 '}';
     }
 }
-
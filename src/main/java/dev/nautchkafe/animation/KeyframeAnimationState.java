@@ -1,51 +1,57 @@
 package dev.nautchkafe.animation;
 
-import io.vavr.collection.List;
-import io.vavr.control.Option;
-
 /**
- * Represents the state of a keyframe animation, managing its current
- * keyframe and transitioning through keyframes.
+ * Represents the playback state of a keyframe animation as a primitive cursor
+ * into a random-access frame sequence.
  *
- * <p>This class is immutable and uses the Option pattern to handle
- * potentially absent values without null references.</p>
+ * <p>This class is mutable and owned by a single task, so advancing a frame is a
+ * constant-time field update that allocates nothing.</p>
  */
 final class KeyframeAnimationState {
 
-    private final List<Keyframe> keyframes;
-    private final Option<Integer> currentIndex;
+    private final int frameCount;
+    private int currentIndex;
 
-    KeyframeAnimationState(final List<Keyframe> keyframes) {
-        this.keyframes = keyframes;
-        this.currentIndex = Option.some(0);
+    KeyframeAnimationState(final int frameCount) {
+        this.frameCount = frameCount;
+        this.currentIndex = 0;
     }
 
-    private KeyframeAnimationState(final List<Keyframe> keyframes, final Option<Integer> currentIndex) {
-        this.keyframes = keyframes;
-        this.currentIndex = currentIndex;
+    /**
+     * Gets the index of the current keyframe.
+     *
+     * @return the current index, equal to the frame count once the animation has finished.
+     */
+    int currentIndex() {
+        return currentIndex;
     }
 
     /**
-     * Gets the current keyframe if the index is within bounds.
+     * Skips the given number of frames, without moving past the last frame so that it is always shown.
      *
-     * @return an Option containing the current keyframe if present and
-     * the index is valid, or Option.none() otherwise
+     * @param frames the number of frames to skip.
      */
-    Option<Keyframe> currentFrame() {
-        return currentIndex.flatMap(i -> i >= 0
-                && i < keyframes.size()
-                ? Option.of(keyframes.get(i))
-                : Option.none());
+    void skipFrames(final int frames) {
+        final long target = Math.min((long) currentIndex + frames, frameCount - 1L);
+        currentIndex = (int) Math.max(currentIndex, target);
     }
 
     /**
-     * Advances the animation to the next keyframe if it exists.
+     * Gets the number of frames that are still to be shown.
      *
-     * @return a new KeyframeAnimationState representing the next frame
+     * @return the remaining frame count, zero once the animation has finished.
+     */
+    int remainingFrames() {
+        return frameCount - currentIndex;
+    }
+
+    /**
+     * Advances the animation to the next keyframe.
      */
-    KeyframeAnimationState nextFrame() {
-        return new KeyframeAnimationState(keyframes, currentIndex.filter(i -> i < keyframes.size() - 1)
-                .map(i -> i + 1));
+    void nextFrame() {
+        if (currentIndex < frameCount) {
+            currentIndex++;
+        }
     }
 
     /**
@@ -54,6 +60,6 @@ final class KeyframeAnimationState {
      * @return true if the current index is beyond the last keyframe, false otherwise
      */
     boolean isFinished() {
-        return currentIndex.exists(i -> i >= keyframes.size());
+        return currentIndex >= frameCount;
     }
 }
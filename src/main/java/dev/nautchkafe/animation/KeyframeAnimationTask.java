@@ -1,138 +1,481 @@
 package dev.nautchkafe.animation;
 
-import io.vavr.Lazy;
-import io.vavr.collection.List;
-import io.vavr.control.Try;
-import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
+import io.vavr.control.Option;
 
 import java.time.Duration;
-import java.util.function.BiConsumer;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * KeyframeAnimationTask is a final class that extends BukkitRunnable to handle the animation sequence for a player.
- * This class controls the animation state, schedule, and rendering logic specific to keyframe animations.
+ * KeyframeAnimationTask is a final class that handles the animation sequence for a player or a group of players.
+ * This class controls the animation state, schedule, and rendering logic specific to keyframe animations,
+ * and is advanced by the shared {@link KeyframeAnimationEngine}.
+ *
+ * <p>The engine thread picks the due frame and stages the task on a {@link KeyframeSendStage}; the main
+ * thread then sends the staged frame. If the main thread falls behind, a newer frame replaces the one
+ * still waiting, so only the latest frame is sent.</p>
+ *
+ * <p>Each task completes a future with its {@link KeyframeAnimationOutcome} once it ends. Whichever way
+ * ends the task first decides the outcome.</p>
  */
-final class KeyframeAnimationTask extends BukkitRunnable {
+final class KeyframeAnimationTask extends KeyframeTimingWheel.Entry {
 
-    private final Player player;
-    private final Lazy<List<Keyframe>> lazyKeyframes;
-    private KeyframeAnimationState animationState;
-    private final BiConsumer<Player, Keyframe> renderer;
+    private final KeyframeAudience audience;
+    private final Option<UUID> owner;
+    private final KeyframeChannel channel;
+    private final String type;
+    private final KeyframePriority priority;
+    private final CompiledFrameSequence keyframes;
+    private final KeyframeAnimationState animationState;
+    private final KeyframeRenderer renderer;
     private final KeyframeAnimationScheduler scheduler;
+    private final AtomicReference<CompiledKeyframe> pendingFrame;
+    private final AtomicBoolean staged;
+    private final CompletableFuture<KeyframeAnimationOutcome> completion;
+    private final Runnable syncRequest;
+    private volatile KeyframeSendStage sendStage;
+    private CompiledKeyframe lastStagedFrame;
+    private CompiledKeyframe lastSentFrame;
+    private long sentFrameDeadline;
+    private boolean endSent;
+    private boolean held;
+    private volatile long pendingFrameDeadline;
+    private volatile boolean endPending;
+    private volatile boolean syncPending;
+    private volatile boolean cancelled;
+    private volatile KeyframeAnimationTask replaced;
 
-    private KeyframeAnimationTask(final Player player, final KeyframeAnimationState animationState,
-                                  final BiConsumer<Player, Keyframe> renderer, final KeyframeAnimationScheduler scheduler,
-                                  final Lazy<List<Keyframe>> lazyKeyframes) {
-        this.player = player;
+    private KeyframeAnimationTask(final KeyframeAudience audience, final KeyframeChannel channel, final String type,
+                                  final KeyframePriority priority,
+                                  final KeyframeAnimationState animationState,
+                                  final KeyframeRenderer renderer, final KeyframeAnimationScheduler scheduler,
+                                  final CompiledFrameSequence keyframes) {
+        this.audience = audience;
+        this.owner = audience.owner();
+        this.channel = channel;
+        this.type = type;
+        this.priority = priority;
         this.animationState = animationState;
         this.renderer = renderer;
         this.scheduler = scheduler;
-        this.lazyKeyframes = lazyKeyframes;
+        this.keyframes = keyframes;
+        this.pendingFrame = new AtomicReference<>();
+        this.staged = new AtomicBoolean(false);
+        this.completion = new CompletableFuture<>();
+        this.syncRequest = this::requestSync;
     }
 
     /**
-     * Factory method to create an instance of KeyframeAnimationTask using an animation configuration.
+     * Factory method to create an instance of KeyframeAnimationTask using a predefined sequence of keyframes.
      *
-     * @param player The player for whom the animation is to be created.
-     * @param config Configuration containing details about the animation.
+     * @param audience The audience for whom the animation is to be created.
+     * @param channel The player channel the animation occupies.
+     * @param type The animation type reported in the engine metrics.
+     * @param priority How the animation is degraded when the server is under load.
+     * @param keyframes Sequence of compiled keyframes that define the animation.
+     * @param renderer The renderer used to show each frame.
      * @param tickDelay Duration between each frame of animation.
      * @return A new instance of KeyframeAnimationTask.
      */
-    public static KeyframeAnimationTask create(final Player player, final KeyframeAnimationMessageConfig config, final Duration tickDelay) {
-        return createCommon(player, createKeyframes(config), tickDelay);
+    public static KeyframeAnimationTask create(final KeyframeAudience audience, final KeyframeChannel channel,
+                                               final String type, final KeyframePriority priority,
+                                               final CompiledFrameSequence keyframes,
+                                               final KeyframeRenderer renderer, final Duration tickDelay) {
+        return createCommon(audience, channel, type, priority, keyframes, renderer, tickDelay);
     }
 
     /**
-     * Factory method to create an instance of KeyframeAnimationTask using a predefined list of keyframes.
+     * Private helper method used by factory methods to create an instance of KeyframeAnimationTask.
      *
-     * @param player The player for whom the animation is to be created.
-     * @param keyframes List of keyframes that define the animation.
-     * @param tickDelay Duration between each frame of animation.
+     * @param audience The audience for whom the animation is being set up.
+     * @param channel The player channel the animation occupies.
+     * @param type The animation type reported in the engine metrics.
+     * @param priority How the animation is degraded when the server is under load.
+     * @param keyframes Sequence of compiled keyframes to be animated.
+     * @param renderer The renderer used to show each frame.
+     * @param tickDelay Delay between updating frames of animation.
      * @return A new instance of KeyframeAnimationTask.
      */
-    public static KeyframeAnimationTask create(final Player player, final List<Keyframe> keyframes, final Duration tickDelay) {
-        return createCommon(player, keyframes, tickDelay);
+    private static KeyframeAnimationTask createCommon(final KeyframeAudience audience,
+                                                      final KeyframeChannel channel,
+                                                      final String type,
+                                                      final KeyframePriority priority,
+                                                      final CompiledFrameSequence keyframes,
+                                                      final KeyframeRenderer renderer,
+                                                      final Duration tickDelay) {
+        final KeyframeAnimationState state = new KeyframeAnimationState(keyframes.size());
+        final KeyframeAnimationScheduler scheduler = KeyframeAnimationScheduler.create(tickDelay);
+
+        return new KeyframeAnimationTask(audience, channel, type, priority, state, renderer, scheduler, keyframes);
     }
 
     /**
-     * Private helper method used by factory methods to create an instance of KeyframeAnimationTask.
+     * Checks if the animation is still active based on its audience's status and animation's completion state.
      *
-     * @param player The player for whom the animation is being set up.
-     * @param keyframes List of keyframes to be animated.
-     * @param tickDelay Delay between updating frames of animation.
-     * @return A new instance of KeyframeAnimationTask.
+     * @return true if the animation is active, false otherwise.
      */
-    private static KeyframeAnimationTask createCommon(final Player player,
-                                                      final List<Keyframe> keyframes,
-                                                      final Duration tickDelay) {
-        final KeyframeAnimationState state = new KeyframeAnimationState(keyframes);
-        final KeyframeAnimationScheduler scheduler = KeyframeAnimationScheduler.create(tickDelay);
+    private boolean isAnimationActive() {
+        return !cancelled && audience.isActive() && !animationState.isFinished();
+    }
 
-        final BiConsumer<Player, Keyframe> renderFunction = (audience, keyframe) -> Try.run(() -> {
-                    final KeyframeRenderer renderer = KeyframeRenderer.miniMessageRenderer();
-                    renderer.render(audience, keyframe, scheduler.tickDelay());
-                }).onFailure(e -> KeyframeLogger.logInfo("> Error rendering keyframe: " + e.getMessage()));
+    /**
+     * Updates the animation by sequencing through the frames, staging the due one and modifying internal state accordingly.
+     * Frames whose time slot already passed are skipped so playback stays aligned with wall time. Gaps of a
+     * {@link KeyframeTimeline} send nothing; if the due index is a gap, the latest skipped frame is sent instead.
+     *
+     * @param dueFrames the number of frames that became due since the previous update.
+     */
+    private void updateAnimation(final int dueFrames) {
+        animationState.skipFrames(dueFrames - 1);
 
+        final int index = animationState.currentIndex();
+        CompiledKeyframe keyframe = keyframes.frame(index);
+        for (int skipped = 1; keyframe == null && skipped < dueFrames && skipped <= index; skipped++) {
+            keyframe = keyframes.frame(index - skipped);
+        }
 
-        final Lazy<List<Keyframe>> lazyKeyframes = Lazy.of(() -> keyframes);
+        if (keyframe != null) {
+            pendingFrameDeadline = scheduler.currentFrameDeadline();
+            pendingFrame.set(keyframe);
+            stage();
+            lastStagedFrame = keyframe;
+        }
 
-        return new KeyframeAnimationTask(player, state, renderFunction, scheduler, lazyKeyframes);
+        animationState.nextFrame();
     }
 
     /**
-     * Transforms animation message configurations into a list of keyframes.
+     * Shows the current frame again with a stay time that lasts until the animation resumes, since a title would
+     * otherwise fade out after one frame while the animation is paused.
+     */
+    private void hold() {
+        held = true;
+        pendingFrameDeadline = scheduler.currentFrameDeadline();
+        pendingFrame.set(lastStagedFrame.held());
+        stage();
+    }
+
+    /**
+     * Lets the renderer close the timeline if the animation played to its end for an audience that is still present.
+     */
+    private void finishIfCompleted() {
+        if (!cancelled && lastStagedFrame != null && animationState.isFinished() && audience.isActive()) {
+            endPending = true;
+            stage();
+        }
+    }
+
+    /**
+     * Hands this task to the send stage unless it is already waiting there.
+     */
+    private void stage() {
+        if (staged.compareAndSet(false, true)) {
+            sendStage.stage(this);
+        }
+    }
+
+    /**
+     * Asks for the audience to catch up with the frame sent last, such as when a member joined a shared timeline
+     * between two frames. Safe to call from any thread.
+     */
+    private void requestSync() {
+        syncPending = true;
+        if (sendStage != null) {
+            stage();
+        }
+    }
+
+    /**
+     * Sends the staged frame, and the end of the timeline once it was reached. Called from the main thread.
+     * If only a catch-up was requested, the audience is synced with the frame sent last.
      *
-     * @param config Configuration from which keyframes are derived.
-     * @keyframeLimit - limit for keyframe default  set 100, change for performance
-     * @return List of created keyframes based on configuration.
+     * @return true if a frame was rendered.
      */
-    private static List<Keyframe> createKeyframes(final KeyframeAnimationMessageConfig config) {
-        final KeyframeSupplier keyframeSupplier = () -> {
-            final String subtitleWithCharacter = config.subtitleMessage() + " " + config.character();
-            final int keyframeLimit = Math.min(config.numberOfFrames(), 100);
+    boolean send() {
+        staged.set(false);
 
-            return List.range(0, keyframeLimit)
-                    .map(i -> new Keyframe(config.titleMessage(), subtitleWithCharacter));
-        };
+        final KeyframeAnimationTask replacedTask = replaced;
+        if (replacedTask != null) {
+            replaced = null;
+            final CompiledKeyframe takenOver = replacedTask.handOver(renderer);
+            if (lastSentFrame == null) {
+                lastSentFrame = takenOver;
+            }
+        }
 
-        return keyframeSupplier.get();
+        final boolean sync = syncPending;
+        syncPending = false;
+        final boolean end = endPending;
+        final CompiledKeyframe keyframe = pendingFrame.getAndSet(null);
+        final boolean rendered = keyframe != null && !cancelled;
+        if (rendered) {
+            audience.render(renderer, lastSentFrame, keyframe);
+            lastSentFrame = keyframe;
+            sentFrameDeadline = pendingFrameDeadline;
+        } else if (sync && !end && !cancelled && lastSentFrame != null) {
+            audience.sync(renderer, lastSentFrame);
+        }
+
+        if (end && !endSent && lastSentFrame != null) {
+            endSent = true;
+            audience.finish(renderer, lastSentFrame);
+        }
+
+        return rendered;
     }
 
     /**
-     * Checks if the animation is still active based on player's status and animation's completion state.
+     * Determines if a frame is waiting to be sent. Called from the main thread.
      *
-     * @return true if the animation is active, false otherwise.
+     * @return true if a frame is staged.
      */
-    private boolean isAnimationActive() {
-        return player.isOnline() && !animationState.isFinished();
+    boolean hasPendingFrame() {
+        return pendingFrame.get() != null;
+    }
+
+    /**
+     * Determines if the end of the timeline is waiting to be sent. Called from the main thread.
+     *
+     * @return true if the end is staged.
+     */
+    boolean isEndPending() {
+        return endPending;
+    }
+
+    /**
+     * Estimates the packets sending the staged frame to the whole audience costs. Called from the main thread.
+     *
+     * @return the estimated number of packets, zero if no frame is staged.
+     */
+    int estimatedPackets() {
+        final CompiledKeyframe keyframe = pendingFrame.get();
+        return keyframe == null ? 0 : renderer.estimatedPackets(lastSentFrame, keyframe) * audience.size();
     }
 
     /**
-     * Updates the animation by sequencing through the frames, rendering them and modifying internal state accordingly.
+     * Estimates the bytes sending the staged frame to the whole audience costs. Called from the main thread.
+     *
+     * @return the estimated number of bytes, zero if no frame is staged.
+     */
+    int estimatedBytes() {
+        final CompiledKeyframe keyframe = pendingFrame.get();
+        return keyframe == null ? 0 : renderer.estimatedBytes(lastSentFrame, keyframe) * audience.size();
+    }
+
+    /**
+     * Returns the deadline of the frame sent last. Called from the main thread.
+     *
+     * @return the clock value at which the last sent frame was due.
+     */
+    long sentFrameDeadline() {
+        return sentFrameDeadline;
+    }
+
+    /**
+     * Determines if this task played its last frame without being cancelled.
+     *
+     * @return true if the animation completed.
      */
-    private void updateAnimation() {
-        if (scheduler.shouldUpdateFrame()) {
-            final List<Keyframe> keyframes = lazyKeyframes.get();
+    boolean isCompleted() {
+        return !cancelled && animationState.isFinished();
+    }
 
-            animationState = new KeyframeAnimationState(keyframes);
-            animationState.currentFrame().peek(keyframe -> renderer.accept(player, keyframe));
+    /**
+     * Starts the frame schedule of this task so that its first frame is due immediately, and lets the
+     * audience ask for catch-ups from now on.
+     *
+     * @param now the current clock value.
+     * @param sendStage the stage that sends the frames of this task on the main thread.
+     */
+    void start(final long now, final KeyframeSendStage sendStage) {
+        this.sendStage = sendStage;
+        scheduler.start(now);
 
-            animationState = animationState.nextFrame();
-            scheduler.withUpdatedFrameTime();
+        audience.attach(syncRequest);
+        if (completion.isDone()) {
+            audience.detach();
         }
     }
 
     /**
-     * Overridden run method that handles frame updates and checks the activity of the animation.
+     * Handles a frame update once the engine finds this task due and checks the activity of the animation.
+     * The wheel may fire up to half a wheel tick early, so the update counts as happening no earlier than
+     * the deadline it was scheduled for.
+     *
+     * @param now the current clock value.
+     * @param paused true if the animation should hold its current frame instead of advancing; the first frame is always shown.
+     * @return true if the animation is still active and should be rescheduled, false once it is done.
      */
-    @Override
-    public void run() {
+    boolean tick(final long now, final boolean paused) {
         if (!isAnimationActive()) {
-            cancel();
-            return;
+            finishIfCompleted();
+            return false;
+        }
+
+        if (paused && lastStagedFrame != null) {
+            if (!held) {
+                hold();
+            }
+
+            scheduler.postpone(now);
+            return true;
         }
 
-        updateAnimation();
+        held = false;
+        updateAnimation(scheduler.advance(Math.max(now, deadline())));
+        return true;
+    }
+
+    /**
+     * Returns the deadline at which this task should be advanced next when only every n-th frame is sent.
+     * Frames in between are skipped on the next update, so the animation still finishes on time, and the
+     * last frame is never skipped.
+     *
+     * @param frameDivisor how many frames make up one sent frame, one for the full frame rate.
+     * @return the clock value of the next update.
+     */
+    long nextWakeDeadline(final int frameDivisor) {
+        final int stride = Math.max(1, Math.min(frameDivisor, animationState.remainingFrames()));
+        return scheduler.frameDeadlineAfter(stride - 1);
+    }
+
+    /**
+     * Returns the deadline at which this task should be advanced next.
+     *
+     * @return the clock value of the next frame.
+     */
+    long nextFrameDeadline() {
+        return scheduler.nextFrameDeadline();
+    }
+
+    /**
+     * Records the task this one replaced on its player's channel, so this task takes over what the renderer of
+     * the replaced task shows before sending its first frame. Called from the engine thread.
+     *
+     * @param superseded the replaced task.
+     */
+    void replaces(final KeyframeAnimationTask superseded) {
+        this.replaced = superseded;
+    }
+
+    /**
+     * Hands what the renderer of this replaced task shows over to the renderer of its successor, after taking
+     * over from a task this one replaced before it sent anything. Called from the main thread.
+     *
+     * @param successor the renderer of the task that replaced this one.
+     * @return the frame the successor now shows, or null if it took nothing over.
+     */
+    private CompiledKeyframe handOver(final KeyframeRenderer successor) {
+        CompiledKeyframe shown = lastSentFrame;
+        final KeyframeAnimationTask earlier = replaced;
+        if (earlier != null) {
+            replaced = null;
+            final CompiledKeyframe takenOver = earlier.handOver(renderer);
+            if (shown == null) {
+                shown = takenOver;
+            }
+        }
+
+        return successor.takeOver(renderer) ? shown : null;
+    }
+
+    /**
+     * Marks this task as cancelled, so it renders no further frames.
+     */
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Cancels this task on behalf of its handle. Unlike a superseded task, a cancelled one lets the renderer
+     * close the timeline for an audience that is still present, so nothing it showed or took over from the task
+     * it replaced is left behind. Called from the engine thread.
+     *
+     * @return true if the task was not cancelled before.
+     */
+    boolean stop() {
+        if (cancelled) {
+            return false;
+        }
+
+        cancelled = true;
+        if ((lastStagedFrame != null || replaced != null) && !endPending && audience.isActive()) {
+            endPending = true;
+            stage();
+        }
+
+        return true;
+    }
+
+    /**
+     * Completes the future of this task with the given outcome, unless the task already ended.
+     * Safe to call from any thread.
+     *
+     * @param outcome how the task ended.
+     * @return true if this call ended the task.
+     */
+    boolean complete(final KeyframeAnimationOutcome outcome) {
+        if (!completion.complete(outcome)) {
+            return false;
+        }
+
+        audience.detach();
+        return true;
+    }
+
+    /**
+     * Returns the future completed with the outcome of this task once it ended.
+     *
+     * @return the completion of the task.
+     */
+    CompletableFuture<KeyframeAnimationOutcome> completion() {
+        return completion;
+    }
+
+    /**
+     * Determines if this task was cancelled.
+     *
+     * @return true if the task was cancelled.
+     */
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Returns the unique id of the single player this task animates.
+     *
+     * @return the owning player's unique id, or none for broadcasts.
+     */
+    Option<UUID> owner() {
+        return owner;
+    }
+
+    /**
+     * Returns the player channel this task occupies.
+     *
+     * @return the channel of the task.
+     */
+    KeyframeChannel channel() {
+        return channel;
+    }
+
+    /**
+     * Returns how this task is degraded when the server is under load.
+     *
+     * @return the priority of the task.
+     */
+    KeyframePriority priority() {
+        return priority;
+    }
+
+    /**
+     * Returns the animation type this task reports in the engine metrics.
+     *
+     * @return the animation type.
+     */
+    String type() {
+        return type;
     }
 }
@@ -0,0 +1,150 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.control.Option;
+import net.kyori.adventure.audience.Audience;
+import org.bukkit.entity.Player;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * The receivers of one animation timeline. A timeline renders each frame once through its
+ * {@link KeyframeAudience}, which fans the frame out to every member that is still present.
+ *
+ * <p>Frames are rendered and finished on the main thread, while {@link #isActive()} is polled by the
+ * engine thread and must therefore be cheap and thread-safe.</p>
+ */
+interface KeyframeAudience {
+
+    /**
+     * Determines if the audience still has members worth rendering to, as of the last frame sent.
+     *
+     * @return true if the timeline should keep playing for this audience.
+     */
+    boolean isActive();
+
+    /**
+     * Renders a compiled keyframe to every present member of the audience. A failure for one member
+     * does not prevent the frame from reaching the others.
+     *
+     * @param renderer the renderer used to show the frame.
+     * @param previous the frame rendered before, or null if this is the first frame of the timeline.
+     * @param keyframe the compiled keyframe to show.
+     */
+    void render(final KeyframeRenderer renderer, final CompiledKeyframe previous, final CompiledKeyframe keyframe);
+
+    /**
+     * Lets the renderer close the timeline for every present member once its last frame was shown.
+     *
+     * @param renderer the renderer used to show the frames.
+     * @param last the last frame rendered.
+     */
+    void finish(final KeyframeRenderer renderer, final CompiledKeyframe last);
+
+    /**
+     * Renders one frame of a timeline to a single member, either in full or as a transition from the previous frame.
+     *
+     * @param member the receiving member.
+     * @param renderer the renderer used to show the frame.
+     * @param previous the frame rendered before, or null if this is the first frame of the timeline.
+     * @param keyframe the compiled keyframe to show.
+     */
+    static void renderTo(final Audience member, final KeyframeRenderer renderer,
+                         final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous == null) {
+            renderer.render(member, keyframe);
+            return;
+        }
+
+        renderer.renderTransition(member, previous, keyframe);
+    }
+
+    /**
+     * Returns the number of members a frame is rendered to, as charged by a {@link KeyframeBandwidthBudget}.
+     * Audiences that resolve their members while rendering count as one member.
+     *
+     * @return the number of members, as of the last frame sent.
+     */
+    default int size() {
+        return 1;
+    }
+
+    /**
+     * Shows the current frame to members who joined since the last frame was sent, and closes the timeline for
+     * members who left, without waiting for the next frame. Called from the main thread after the audience asked
+     * its task to catch up. Audiences with fixed members have nothing to catch up on.
+     *
+     * @param renderer the renderer used to show the frames.
+     * @param current the frame sent last.
+     */
+    default void sync(final KeyframeRenderer renderer, final CompiledKeyframe current) {
+    }
+
+    /**
+     * Hands the audience a callback that asks its task to catch up between frames, called when the task starts.
+     * The callback may be run from any thread, and is followed by {@link #sync} on the main thread.
+     *
+     * @param listener the callback to run when members joined or left.
+     */
+    default void attach(final Runnable listener) {
+    }
+
+    /**
+     * Releases the callback handed to {@link #attach} once the task ended.
+     */
+    default void detach() {
+    }
+
+    /**
+     * Returns the unique id of the single player this audience belongs to. Group audiences have no owner
+     * and are therefore not subject to per-player conflict policies.
+     *
+     * @return the owning player's unique id, if the audience is a single player.
+     */
+    default Option<UUID> owner() {
+        return Option.none();
+    }
+
+    /**
+     * Creates an audience of a single player, active while the player is online.
+     *
+     * @param player the receiving player.
+     * @return a single-player audience.
+     */
+    static KeyframeAudience player(final Player player) {
+        return new PlayerKeyframeAudience(player);
+    }
+
+    /**
+     * Creates an audience of a group of players. Members drop out as soon as they go offline,
+     * and the audience stays active while at least one member remains.
+     *
+     * @param players the receiving players, copied on creation.
+     * @return a player group audience.
+     */
+    static KeyframeAudience players(final Collection<? extends Player> players) {
+        return new PlayerGroupKeyframeAudience(players);
+    }
+
+    /**
+     * Creates an audience backed by an Adventure {@link Audience}, such as a forwarding group.
+     * The Adventure audience takes care of its own membership, so it is always considered active.
+     *
+     * @param audience the receiving Adventure audience.
+     * @return a forwarding audience.
+     */
+    static KeyframeAudience forwarding(final Audience audience) {
+        return new ForwardingKeyframeAudience(audience);
+    }
+
+    /**
+     * Creates the audience of one track of a shared timeline, which follows the members of a shared audience
+     * as they join and leave.
+     *
+     * @param audience the shared audience.
+     * @return a shared timeline audience.
+     */
+    static KeyframeAudience shared(final KeyframeSharedAudience audience) {
+        return new SharedKeyframeAudience(audience);
+    }
+}
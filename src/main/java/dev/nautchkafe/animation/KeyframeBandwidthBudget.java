@@ -0,0 +1,140 @@
+package dev.nautchkafe.animation;
+
+import java.util.Objects;
+
+/**
+ * Caps how many packets and bytes the engine sends for animations.
+ *
+ * <p>Every player has a token bucket that refills at a steady packet rate up to a burst size, and the whole server
+ * has a packet and a byte budget per tick. A frame is held back while its player's bucket is empty or the budget
+ * of the tick is spent; a frame is sent as long as anything is left, even if its cost overdraws what is left. A held
+ * back frame is not queued: if the animation moves on before it could be sent, only the latest frame of the
+ * animation is sent, so a throttled animation skips frames instead of falling behind. Frames held back are counted in
+ * {@link KeyframeMetricsSnapshot#throttledFrames()}.</p>
+ *
+ * <p>{@link KeyframePriority#CRITICAL} animations and the end of a timeline are never held back, but the frames of
+ * critical animations still use up the budget. Broadcasts are only subject to the server-wide budget, charged once
+ * per member they know of, so all of their members stay in step; Adventure audiences count as a single member.
+ * Costs are estimated by the {@link KeyframeRenderer} of each animation.</p>
+ */
+public final class KeyframeBandwidthBudget {
+
+    private static final KeyframeBandwidthBudget UNLIMITED = new KeyframeBandwidthBudget(
+            Double.POSITIVE_INFINITY, Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final double playerPacketsPerSecond;
+    private final int playerBurstPackets;
+    private final long packetsPerTick;
+    private final long bytesPerTick;
+
+    private KeyframeBandwidthBudget(final double playerPacketsPerSecond, final int playerBurstPackets,
+                                    final long packetsPerTick, final long bytesPerTick) {
+        this.playerPacketsPerSecond = playerPacketsPerSecond;
+        this.playerBurstPackets = playerBurstPackets;
+        this.packetsPerTick = packetsPerTick;
+        this.bytesPerTick = bytesPerTick;
+    }
+
+    /**
+     * Factory method to create a bandwidth budget.
+     *
+     * @param playerPacketsPerSecond the packets per second a player's bucket refills with.
+     * @param playerBurstPackets the packets a player's bucket holds at most, sent in a burst after a quiet period.
+     * @param packetsPerTick the packets sent to all players together per server tick.
+     * @param bytesPerTick the estimated bytes sent to all players together per server tick.
+     * @return a new KeyframeBandwidthBudget instance.
+     */
+    public static KeyframeBandwidthBudget of(final int playerPacketsPerSecond, final int playerBurstPackets,
+                                             final int packetsPerTick, final int bytesPerTick) {
+        if (playerPacketsPerSecond < 1) {
+            throw new IllegalArgumentException("Player packet rate must be positive: " + playerPacketsPerSecond);
+        }
+
+        if (playerBurstPackets < 1) {
+            throw new IllegalArgumentException("Player burst must be positive: " + playerBurstPackets);
+        }
+
+        if (packetsPerTick < 1) {
+            throw new IllegalArgumentException("Packets per tick must be positive: " + packetsPerTick);
+        }
+
+        if (bytesPerTick < 1) {
+            throw new IllegalArgumentException("Bytes per tick must be positive: " + bytesPerTick);
+        }
+
+        return new KeyframeBandwidthBudget(playerPacketsPerSecond, playerBurstPackets, packetsPerTick, bytesPerTick);
+    }
+
+    /**
+     * Provides the budget that never holds back a frame, which the engine uses unless configured otherwise.
+     *
+     * @return the unlimited bandwidth budget.
+     */
+    public static KeyframeBandwidthBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Determines if this budget never holds back a frame.
+     *
+     * @return true for the unlimited budget.
+     */
+    boolean isUnlimited() {
+        return this == UNLIMITED;
+    }
+
+    /**
+     * @return the packets per second a player's bucket refills with.
+     */
+    double playerPacketsPerSecond() {
+        return playerPacketsPerSecond;
+    }
+
+    /**
+     * @return the packets a player's bucket holds at most.
+     */
+    int playerBurstPackets() {
+        return playerBurstPackets;
+    }
+
+    /**
+     * @return the packets sent to all players together per server tick.
+     */
+    long packetsPerTick() {
+        return packetsPerTick;
+    }
+
+    /**
+     * @return the estimated bytes sent to all players together per server tick.
+     */
+    long bytesPerTick() {
+        return bytesPerTick;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        KeyframeBandwidthBudget that = (KeyframeBandwidthBudget) o;
+        return Double.compare(playerPacketsPerSecond, that.playerPacketsPerSecond) == 0
+                && playerBurstPackets == that.playerBurstPackets
+                && packetsPerTick == that.packetsPerTick
+                && bytesPerTick == that.bytesPerTick;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(playerPacketsPerSecond, playerBurstPackets, packetsPerTick, bytesPerTick);
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeBandwidthBudget{" +
+                "playerPacketsPerSecond=" + playerPacketsPerSecond +
+                ", playerBurstPackets=" + playerBurstPackets +
+                ", packetsPerTick=" + packetsPerTick +
+                ", bytesPerTick=" + bytesPerTick +
+                '}';
+    }
+}
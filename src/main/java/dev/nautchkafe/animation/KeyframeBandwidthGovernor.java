@@ -0,0 +1,164 @@
+package dev.nautchkafe.animation;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies a {@link KeyframeBandwidthBudget} to the frames of one drain of the {@link KeyframeSendStage}.
+ *
+ * <p>The governor is used from the main thread, except for forgetting players, which the engine thread does
+ * when a player quits. Per-player buckets are refilled lazily when the player is next sent a frame, so idle
+ * players cost nothing; a bucket is only created the first time a player is sent a frame under a budget, and
+ * deciding on a frame allocates nothing.</p>
+ */
+final class KeyframeBandwidthGovernor {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final ConcurrentHashMap<UUID, TokenBucket> buckets;
+    private volatile KeyframeBandwidthBudget budget;
+    private KeyframeBandwidthBudget tickBudget;
+    private long now;
+    private long packetsLeft;
+    private long bytesLeft;
+
+    KeyframeBandwidthGovernor() {
+        this.buckets = new ConcurrentHashMap<>();
+        this.budget = KeyframeBandwidthBudget.unlimited();
+        this.tickBudget = budget;
+    }
+
+    /**
+     * Sets the budget applied from the next drain on. Safe to call from any thread.
+     *
+     * @param budget the bandwidth budget.
+     */
+    void budget(final KeyframeBandwidthBudget budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Starts the budget of a new drain.
+     *
+     * @param now the clock value the drain started at.
+     */
+    void startTick(final long now) {
+        final KeyframeBandwidthBudget current = budget;
+        if (current != tickBudget) {
+            buckets.clear();
+            tickBudget = current;
+        }
+
+        this.now = now;
+        this.packetsLeft = current.packetsPerTick();
+        this.bytesLeft = current.bytesPerTick();
+    }
+
+    /**
+     * Decides if the staged frame of a task may be sent in this drain, and charges its cost if so. Cancelled
+     * tasks are let through without charging anything, as sending drops their frame, and without creating a
+     * bucket for a player who may have quit.
+     *
+     * @param task the staged task.
+     * @return true if the task should be sent now, false if it should wait for a later drain.
+     */
+    boolean admit(final KeyframeAnimationTask task) {
+        if (tickBudget.isUnlimited() || task.isCancelled() || !task.hasPendingFrame() || task.isEndPending()) {
+            return true;
+        }
+
+        final TokenBucket bucket = task.owner().isEmpty() ? null : bucketOf(task.owner().get());
+        if (task.priority() != KeyframePriority.CRITICAL
+                && (isExhausted() || (bucket != null && !bucket.hasToken(now, tickBudget)))) {
+            return false;
+        }
+
+        final int packets = task.estimatedPackets();
+        packetsLeft -= packets;
+        bytesLeft -= task.estimatedBytes();
+        if (bucket != null) {
+            bucket.take(packets);
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines if the server-wide budget of this drain is spent.
+     *
+     * @return true if no further frames of animations that are not critical are sent in this drain.
+     */
+    boolean isExhausted() {
+        return packetsLeft <= 0 || bytesLeft <= 0;
+    }
+
+    /**
+     * Drops the bucket of a player who quit. Safe to call from any thread.
+     *
+     * @param playerId the unique id of the player.
+     */
+    void forget(final UUID playerId) {
+        buckets.remove(playerId);
+    }
+
+    /**
+     * Returns the number of players the governor holds a bucket for.
+     *
+     * @return the number of buckets.
+     */
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketOf(final UUID playerId) {
+        final TokenBucket bucket = buckets.get(playerId);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        final TokenBucket created = new TokenBucket(tickBudget.playerBurstPackets(), now);
+        buckets.put(playerId, created);
+        return created;
+    }
+
+    /**
+     * The packets a player may still be sent, refilled at the packet rate of the budget.
+     */
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(final double tokens, final long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        /**
+         * Refills the bucket up to the given time and checks if a frame may be sent.
+         *
+         * @param now the current clock value.
+         * @param budget the budget giving the refill rate and the burst size.
+         * @return true if at least one token is left.
+         */
+        private boolean hasToken(final long now, final KeyframeBandwidthBudget budget) {
+            final long elapsed = now - refilledAt;
+            if (elapsed > 0) {
+                tokens = Math.min(budget.playerBurstPackets(),
+                        tokens + elapsed * budget.playerPacketsPerSecond() / NANOS_PER_SECOND);
+                refilledAt = now;
+            }
+
+            return tokens >= 1.0;
+        }
+
+        /**
+         * Takes the packets of a sent frame, which may leave the bucket in debt.
+         *
+         * @param packets the packets the frame cost.
+         */
+        private void take(final int packets) {
+            tokens -= packets;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A snapshot of the statistics of a {@link KeyframeMapper} cache.
+ *
+ * @param hitRatio the ratio of lookups served from the cache, between 0 and 1.
+ * @param hitCount the number of lookups served from the cache.
+ * @param missCount the number of lookups that had to create a keyframe.
+ * @param evictionCount the number of entries evicted because of the size bound.
+ * @param totalLoadTimeNanos the total time spent creating keyframes on misses.
+ * @param averageLoadPenaltyNanos the average time spent creating one keyframe.
+ * @param retainedBytes the approximate number of bytes currently retained by the cache.
+ */
+public record KeyframeCacheStats(double hitRatio, long hitCount, long missCount, long evictionCount,
+                                 long totalLoadTimeNanos, double averageLoadPenaltyNanos, long retainedBytes) {
+}
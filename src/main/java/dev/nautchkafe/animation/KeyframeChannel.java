@@ -0,0 +1,36 @@
+package dev.nautchkafe.animation;
+
+/**
+ * The output slots of a player that an animation can occupy. At most one animation is shown
+ * per player and channel at a time, as decided by the channel's {@link KeyframeConflictPolicy}.
+ */
+public enum KeyframeChannel {
+
+    /**
+     * The title and subtitle shown in the middle of the screen.
+     */
+    TITLE,
+
+    /**
+     * The line of text shown above the hotbar.
+     */
+    ACTION_BAR,
+
+    /**
+     * A boss bar shown at the top of the screen.
+     */
+    BOSS_BAR;
+
+    /**
+     * Returns the renderer used for this channel when a dispatcher was not given one.
+     *
+     * @return the default renderer of the channel.
+     */
+    KeyframeRenderer defaultRenderer() {
+        return switch (this) {
+            case TITLE -> KeyframeRenderer.miniMessageRenderer();
+            case ACTION_BAR -> KeyframeRenderer.actionBarRenderer();
+            case BOSS_BAR -> KeyframeRenderer.bossBarRenderer();
+        };
+    }
+}
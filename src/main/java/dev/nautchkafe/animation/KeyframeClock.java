@@ -0,0 +1,28 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A monotonic time source used by the animation engine to compute frame deadlines.
+ *
+ * <p>Production code uses {@link #system()}, while tests and simulations can supply a
+ * manually advanced clock to drive playback deterministically.</p>
+ */
+@FunctionalInterface
+public interface KeyframeClock {
+
+    /**
+     * Returns the current value of the time source in nanoseconds. Only differences between
+     * two values are meaningful, exactly as with {@link System#nanoTime()}.
+     *
+     * @return the current time in nanoseconds.
+     */
+    long nanoTime();
+
+    /**
+     * Provides the clock backed by {@link System#nanoTime()}.
+     *
+     * @return the system monotonic clock.
+     */
+    static KeyframeClock system() {
+        return System::nanoTime;
+    }
+}
@@ -0,0 +1,248 @@
+package dev.nautchkafe.animation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vavr.collection.List;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.title.Title;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compiles keyframes into {@link CompiledKeyframe}s by parsing their MiniMessage strings once.
+ *
+ * <p>Parsed components are immutable, so they are shared through a bounded cache keyed by the
+ * MiniMessage source, which evicts rarely used sources with Caffeine's frequency-aware policy. Compiling the same animation definition again, for another player or another
+ * loop, only costs cache lookups instead of a full parse.</p>
+ */
+public final class KeyframeCompiler {
+
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    static final Duration FADE_IN = Duration.ofMillis(500);
+    static final Duration FADE_OUT = Duration.ofMillis(500);
+    static final Title.Times HOLD_TIMES = Title.Times.times(Duration.ZERO, Duration.ofHours(1), FADE_OUT);
+    private static final int COMPONENT_CACHE_LIMIT = 4096;
+
+    private static final Cache<String, Component> COMPONENT_CACHE = Caffeine.newBuilder()
+            .maximumSize(COMPONENT_CACHE_LIMIT)
+            .build();
+    private static final Map<Duration, Title.Times> TIMES_CACHE = new ConcurrentHashMap<>();
+    private static final LongAdder COMPONENT_CACHE_HITS = new LongAdder();
+    private static final LongAdder COMPONENT_CACHE_MISSES = new LongAdder();
+
+    private KeyframeCompiler() {
+    }
+
+    /**
+     * Compiles a single keyframe for the given tick delay.
+     *
+     * @param keyframe the keyframe to compile.
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @return the compiled keyframe.
+     */
+    public static CompiledKeyframe compile(final Keyframe keyframe, final Duration tickDelay) {
+        return compile(keyframe, times(tickDelay));
+    }
+
+    /**
+     * Compiles a single keyframe with the given title times.
+     *
+     * @param keyframe the keyframe to compile.
+     * @param times the fade and stay times of the title.
+     * @return the compiled keyframe.
+     */
+    public static CompiledKeyframe compile(final Keyframe keyframe, final Title.Times times) {
+        return CompiledKeyframe.of(keyframe,
+                parse(keyframe.titleMessage()),
+                parse(keyframe.subtitleMessage()),
+                times);
+    }
+
+    /**
+     * Compiles a list of keyframes for the given tick delay. Equal keyframes within the list
+     * are compiled once and share the same {@link CompiledKeyframe} instance.
+     *
+     * @param keyframes the keyframes to compile.
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @return the compiled keyframes in the same order.
+     */
+    public static CompiledFrameSequence compile(final List<Keyframe> keyframes, final Duration tickDelay) {
+        return compile(FrameSequence.of(keyframes), tickDelay);
+    }
+
+    /**
+     * Compiles a frame sequence for the given tick delay. Equal keyframes within the sequence
+     * are compiled once and share the same {@link CompiledKeyframe} instance. Streaming sequences
+     * are not compiled up front; their frames are compiled in look-ahead batches while they play.
+     *
+     * @param sequence the frame sequence to compile.
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @return the compiled frames in the same order.
+     */
+    public static CompiledFrameSequence compile(final FrameSequence sequence, final Duration tickDelay) {
+        if (sequence.isStreaming()) {
+            return new StreamingCompiledFrameSequence(sequence, times(tickDelay), lookAhead(sequence));
+        }
+
+        final Title.Times times = times(tickDelay);
+        final Map<Keyframe, CompiledKeyframe> compiledByKeyframe = new HashMap<>();
+        final CompiledKeyframe[] compiled = new CompiledKeyframe[sequence.size()];
+
+        for (int index = 0; index < compiled.length; index++) {
+            final int frameIndex = index;
+            compiled[index] = compiledByKeyframe.computeIfAbsent(sequence.frame(index),
+                    ignored -> compile(sequence, frameIndex, times));
+        }
+
+        return new ArrayCompiledFrameSequence(compiled);
+    }
+
+    /**
+     * Compiles one frame of a sequence. Frames of a {@link KeyframeTemplate} sequence fill the pre-parsed
+     * template, frames of a growing bar or typewriter fill it with shared prefixes, and frames of a {@link KeyframeStore} use the components cached in its dictionary, instead of
+     * parsing their MiniMessage source.
+     *
+     * @param sequence the frame sequence.
+     * @param index the index of the frame to compile.
+     * @param times the fade and stay times of the title.
+     * @return the compiled keyframe.
+     */
+    static CompiledKeyframe compile(final FrameSequence sequence, final int index, final Title.Times times) {
+        if (sequence instanceof TemplateFrameSequence template) {
+            return template.compile(index, times);
+        }
+
+        if (sequence instanceof PrefixFrameSequence prefix) {
+            return prefix.compile(index, times);
+        }
+
+        if (sequence instanceof StoredFrameSequence stored) {
+            return stored.compile(index, times);
+        }
+
+        return compile(sequence.frame(index), times);
+    }
+
+    /**
+     * Compiles the first look-ahead batch of a streaming sequence ahead of playback. The rest of its frames are
+     * compiled while it plays, as by {@link #compile(FrameSequence, Duration)}, so memory stays constant.
+     *
+     * @param sequence the streaming sequence.
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @return the compiled frames, holding their first batch.
+     */
+    static CompiledFrameSequence compileFirstBatch(final FrameSequence sequence, final Duration tickDelay) {
+        return new StreamingCompiledFrameSequence(sequence, times(tickDelay), lookAhead(sequence)).withFirstBatch();
+    }
+
+    /**
+     * Returns how many frames of a compiled sequence are held in memory ahead of playback.
+     *
+     * @param sequence the compiled sequence.
+     * @return the number of frames compiled ahead.
+     */
+    static long preparedFrames(final CompiledFrameSequence sequence) {
+        return sequence instanceof StreamingCompiledFrameSequence streaming
+                ? streaming.preparedFrames()
+                : sequence.size();
+    }
+
+    /**
+     * Determines if frames of a sequence may repeat, so compiling it in full should share one instance per
+     * distinct frame. Every frame of a growing bar or typewriter differs from the others, and comparing their
+     * sources would cost as much as building them.
+     *
+     * @param sequence the frame sequence.
+     * @return true if equal frames should be looked up before compiling.
+     */
+    static boolean mayRepeatFrames(final FrameSequence sequence) {
+        return !(sequence instanceof PrefixFrameSequence);
+    }
+
+    /**
+     * Returns how many frames of a streaming sequence are compiled ahead of playback in one batch.
+     *
+     * @param sequence the streaming sequence.
+     * @return the look-ahead in frames.
+     */
+    private static int lookAhead(final FrameSequence sequence) {
+        if (sequence instanceof StreamingFrameSequence streaming) {
+            return streaming.lookAhead();
+        }
+
+        return sequence instanceof TemplateFrameSequence template
+                ? template.lookAhead()
+                : FrameSequence.DEFAULT_LOOK_AHEAD;
+    }
+
+    /**
+     * Compiles a frame sequence for the given tick delay on a background worker and returns right away.
+     * Frames requested before the worker finishes are compiled one at a time where they are needed,
+     * so the returned sequence can be played immediately. Streaming sequences are compiled exactly as
+     * by {@link #compile(FrameSequence, Duration)}, which already builds their batches in the background.
+     *
+     * @param sequence the frame sequence to compile.
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @return the compiled frames in the same order.
+     */
+    public static CompiledFrameSequence compileInBackground(final FrameSequence sequence, final Duration tickDelay) {
+        if (sequence.isStreaming()) {
+            return compile(sequence, tickDelay);
+        }
+
+        return new DeferredCompiledFrameSequence(sequence, times(tickDelay),
+                KeyframeWorkers.supply(() -> compile(sequence, tickDelay)));
+    }
+
+    /**
+     * Parses a MiniMessage string, reusing a previously parsed component when available.
+     *
+     * @param message the MiniMessage source.
+     * @return the parsed component.
+     */
+    public static Component parse(final String message) {
+        final Component cached = COMPONENT_CACHE.getIfPresent(message);
+        if (cached != null) {
+            COMPONENT_CACHE_HITS.increment();
+            return cached;
+        }
+
+        COMPONENT_CACHE_MISSES.increment();
+        final Component component = MINI_MESSAGE.deserialize(message);
+        COMPONENT_CACHE.put(message, component);
+        return component;
+    }
+
+    /**
+     * Returns the number of parses served from the component cache since the class was loaded.
+     *
+     * @return the component cache hit count.
+     */
+    static long componentCacheHits() {
+        return COMPONENT_CACHE_HITS.sum();
+    }
+
+    /**
+     * Returns the number of parses that missed the component cache since the class was loaded.
+     *
+     * @return the component cache miss count.
+     */
+    static long componentCacheMisses() {
+        return COMPONENT_CACHE_MISSES.sum();
+    }
+
+    /**
+     * Returns the shared title times for the given tick delay, with the default fade-in and fade-out.
+     *
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @return the title times.
+     */
+    public static Title.Times times(final Duration tickDelay) {
+        return TIMES_CACHE.computeIfAbsent(tickDelay, stay -> Title.Times.times(FADE_IN, stay, FADE_OUT));
+    }
+}
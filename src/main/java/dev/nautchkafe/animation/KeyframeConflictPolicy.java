@@ -0,0 +1,22 @@
+package dev.nautchkafe.animation;
+
+/**
+ * Decides what happens when an animation is dispatched to a player channel that is already playing one.
+ */
+public enum KeyframeConflictPolicy {
+
+    /**
+     * The new animation preempts the playing one, which is retired immediately.
+     */
+    REPLACE,
+
+    /**
+     * The new animation waits until the playing one and every animation queued before it have finished.
+     */
+    QUEUE,
+
+    /**
+     * The new animation is discarded and the playing one continues.
+     */
+    DROP
+}
@@ -0,0 +1,171 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+import org.snakeyaml.engine.v2.api.Load;
+import org.snakeyaml.engine.v2.api.LoadSettings;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Reads {@link KeyframeAnimationDefinition}s from YAML or JSON files. JSON is read as YAML, which it is a subset of,
+ * once its tab indentation, which YAML does not allow, is turned into spaces.
+ *
+ * <pre>
+ * {@code
+ * tick-delay: 250        # milliseconds between frames
+ * priority: cosmetic     # critical, normal or cosmetic, normal when omitted
+ * frames:
+ *   - title: "<gold>Happy Halloween"
+ *     subtitle: "<gray>boo"
+ * }
+ * </pre>
+ */
+final class KeyframeDefinitionReader {
+
+    private static final LoadSettings LOAD_SETTINGS = LoadSettings.builder()
+            .setLabel("keyframe animation")
+            .build();
+
+    private static final String JSON_EXTENSION = ".json";
+    private static final List<String> EXTENSIONS = List.of(".yml", ".yaml", JSON_EXTENSION);
+    private static final long DEFAULT_TICK_DELAY_MILLIS = 50L;
+
+    private KeyframeDefinitionReader() {
+    }
+
+    /**
+     * Determines if a file is an animation definition by its extension.
+     *
+     * @param file the file to check.
+     * @return true for YAML and JSON files.
+     */
+    static boolean isDefinition(final Path file) {
+        return extensionOf(file) != null;
+    }
+
+    /**
+     * Returns the id of the animation defined in a file.
+     *
+     * @param file the definition file.
+     * @return the file name without the extension.
+     */
+    static String idOf(final Path file) {
+        final String fileName = file.getFileName().toString();
+        final String extension = extensionOf(file);
+        return extension == null ? fileName : fileName.substring(0, fileName.length() - extension.length());
+    }
+
+    /**
+     * Reads the content of a definition file.
+     *
+     * @param file the definition file.
+     * @return the raw content.
+     * @throws IOException if the file cannot be read.
+     */
+    static byte[] read(final Path file) throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    /**
+     * Returns the checksum of a definition file's content, used to skip recompiling files whose content did not change.
+     *
+     * @param content the raw content.
+     * @return the content checksum.
+     */
+    static long fingerprint(final byte[] content) {
+        final CRC32 checksum = new CRC32();
+        checksum.update(content);
+        return (checksum.getValue() << 32) | content.length;
+    }
+
+    /**
+     * Parses a definition, encodes its keyframes into the store and parses their components.
+     *
+     * @param file the definition file, which names the animation.
+     * @param content the raw content of the definition file.
+     * @param store the store holding the keyframes of the animation.
+     * @return the parsed definition.
+     * @throws IllegalArgumentException if the content is not a valid definition.
+     */
+    static KeyframeAnimationDefinition parse(final Path file, final byte[] content, final KeyframeStore store) {
+        final String id = idOf(file);
+        final String source = new String(content, StandardCharsets.UTF_8);
+
+        // tabs may only appear between JSON tokens, since strings must escape them
+        final Object document = new Load(LOAD_SETTINGS).loadFromString(JSON_EXTENSION.equals(extensionOf(file))
+                ? source.replace('\t', ' ')
+                : source);
+        if (!(document instanceof Map<?, ?> root)) {
+            throw new IllegalArgumentException("Animation '" + id + "' must be a mapping with a 'frames' list");
+        }
+
+        final Duration tickDelay = Duration.ofMillis(tickDelayMillisOf(id, root.get("tick-delay")));
+        final KeyframePriority priority = priorityOf(id, root.get("priority"));
+        final List<Keyframe> keyframes = keyframesOf(id, root.get("frames"));
+
+        final StoredFrameSequence stored = store.store(id, FrameSequence.of(keyframes));
+        stored.parseComponents();
+
+        return KeyframeAnimationDefinition.of(id, tickDelay, priority, stored, fingerprint(content));
+    }
+
+    private static List<Keyframe> keyframesOf(final String id, final Object frames) {
+        if (!(frames instanceof java.util.List<?> entries) || entries.isEmpty()) {
+            throw new IllegalArgumentException("Animation '" + id + "' needs a non-empty 'frames' list");
+        }
+
+        return List.ofAll(entries).map(entry -> {
+            if (!(entry instanceof Map<?, ?> frame)) {
+                throw new IllegalArgumentException("Frames of animation '" + id + "' must have a 'title' and 'subtitle'");
+            }
+
+            return new Keyframe(stringValue(frame.get("title")), stringValue(frame.get("subtitle")));
+        });
+    }
+
+    private static KeyframePriority priorityOf(final String id, final Object priority) {
+        if (priority == null) {
+            return KeyframePriority.NORMAL;
+        }
+
+        try {
+            return KeyframePriority.valueOf(priority.toString().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Animation '" + id + "' has an unknown priority: " + priority);
+        }
+    }
+
+    private static long tickDelayMillisOf(final String id, final Object value) {
+        if (value == null) {
+            return DEFAULT_TICK_DELAY_MILLIS;
+        }
+
+        if (!(value instanceof Number number) || number.longValue() <= 0) {
+            throw new IllegalArgumentException("Animation '" + id + "' needs a positive 'tick-delay' in milliseconds");
+        }
+
+        return number.longValue();
+    }
+
+    private static String stringValue(final Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String extensionOf(final Path file) {
+        final String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (final String extension : EXTENSIONS) {
+            if (fileName.endsWith(extension)) {
+                return extension;
+            }
+        }
+
+        return null;
+    }
+}
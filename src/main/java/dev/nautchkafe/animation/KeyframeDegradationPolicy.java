@@ -0,0 +1,142 @@
+package dev.nautchkafe.animation;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Decides how animations are degraded when the main thread tick time exceeds its budget.
+ *
+ * <p>Playback always follows the wall clock, so frames whose time slot passed are skipped and an animation
+ * finishes on time no matter how late the ticks are. On top of that, a lower frame rate sends only every
+ * n-th frame while still finishing on time, and a paused animation holds its current frame and resumes
+ * where it stopped once the load drops. The held frame is sent once more when the animation pauses, with a stay
+ * time that keeps a title on screen until it resumes. {@link KeyframePriority#CRITICAL} animations are never degraded.</p>
+ */
+public final class KeyframeDegradationPolicy {
+
+    private static final Duration DEFAULT_TICK_BUDGET = Duration.ofMillis(55);
+    private static final Duration DEFAULT_OVERLOAD_THRESHOLD = Duration.ofMillis(70);
+    private static final int DEFAULT_FRAME_RATE_DIVISOR = 2;
+
+    private final long tickBudgetNanos;
+    private final long overloadThresholdNanos;
+    private final int frameRateDivisor;
+
+    private KeyframeDegradationPolicy(final long tickBudgetNanos, final long overloadThresholdNanos,
+                                      final int frameRateDivisor) {
+        this.tickBudgetNanos = tickBudgetNanos;
+        this.overloadThresholdNanos = overloadThresholdNanos;
+        this.frameRateDivisor = frameRateDivisor;
+    }
+
+    /**
+     * Factory method to create a degradation policy.
+     *
+     * @param tickBudget the average tick time above which the server counts as {@link KeyframeLoadLevel#DEGRADED}.
+     * @param overloadThreshold the average tick time above which the server counts as {@link KeyframeLoadLevel#OVERLOADED}.
+     * @param frameRateDivisor how many frames make up one sent frame when an animation plays at a lower frame rate.
+     * @return a new KeyframeDegradationPolicy instance.
+     */
+    public static KeyframeDegradationPolicy of(final Duration tickBudget, final Duration overloadThreshold,
+                                               final int frameRateDivisor) {
+        if (tickBudget.isNegative() || tickBudget.isZero()) {
+            throw new IllegalArgumentException("Tick budget must be positive: " + tickBudget);
+        }
+
+        if (overloadThreshold.compareTo(tickBudget) < 0) {
+            throw new IllegalArgumentException("Overload threshold must not be below the tick budget: " + overloadThreshold);
+        }
+
+        if (frameRateDivisor < 1) {
+            throw new IllegalArgumentException("Frame rate divisor must be at least one: " + frameRateDivisor);
+        }
+
+        return new KeyframeDegradationPolicy(tickBudget.toNanos(), overloadThreshold.toNanos(), frameRateDivisor);
+    }
+
+    /**
+     * Provides the default policy, which degrades below roughly 18 TPS, counts as overloaded below roughly
+     * 14 TPS and halves the frame rate of degraded animations.
+     *
+     * @return the default degradation policy.
+     */
+    public static KeyframeDegradationPolicy defaults() {
+        return of(DEFAULT_TICK_BUDGET, DEFAULT_OVERLOAD_THRESHOLD, DEFAULT_FRAME_RATE_DIVISOR);
+    }
+
+    /**
+     * Provides a policy that never degrades any animation. Late frames are still skipped.
+     *
+     * @return the disabled degradation policy.
+     */
+    public static KeyframeDegradationPolicy disabled() {
+        return new KeyframeDegradationPolicy(Long.MAX_VALUE, Long.MAX_VALUE, 1);
+    }
+
+    /**
+     * Determines the load level for the given average tick time.
+     *
+     * @param averageTickNanos the measured average main thread tick time in nanoseconds.
+     * @return the load level.
+     */
+    KeyframeLoadLevel levelOf(final long averageTickNanos) {
+        if (averageTickNanos > overloadThresholdNanos) {
+            return KeyframeLoadLevel.OVERLOADED;
+        }
+
+        return averageTickNanos > tickBudgetNanos ? KeyframeLoadLevel.DEGRADED : KeyframeLoadLevel.NORMAL;
+    }
+
+    /**
+     * Determines if animations of the given priority are paused at the given load level.
+     *
+     * @param priority the priority of the animation.
+     * @param level the current load level.
+     * @return true if the animation should hold its frame.
+     */
+    boolean pauses(final KeyframePriority priority, final KeyframeLoadLevel level) {
+        return priority == KeyframePriority.COSMETIC && level == KeyframeLoadLevel.OVERLOADED;
+    }
+
+    /**
+     * Returns how many frames make up one sent frame for the given priority at the given load level.
+     *
+     * @param priority the priority of the animation.
+     * @param level the current load level.
+     * @return one for the full frame rate, or the frame rate divisor when the animation is degraded.
+     */
+    int frameDivisor(final KeyframePriority priority, final KeyframeLoadLevel level) {
+        final boolean degraded = switch (priority) {
+            case CRITICAL -> false;
+            case NORMAL -> level == KeyframeLoadLevel.OVERLOADED;
+            case COSMETIC -> level == KeyframeLoadLevel.DEGRADED;
+        };
+
+        return degraded ? frameRateDivisor : 1;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        KeyframeDegradationPolicy that = (KeyframeDegradationPolicy) o;
+        return tickBudgetNanos == that.tickBudgetNanos
+                && overloadThresholdNanos == that.overloadThresholdNanos
+                && frameRateDivisor == that.frameRateDivisor;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tickBudgetNanos, overloadThresholdNanos, frameRateDivisor);
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeDegradationPolicy{" +
+                "tickBudgetNanos=" + tickBudgetNanos +
+                ", overloadThresholdNanos=" + overloadThresholdNanos +
+                ", frameRateDivisor=" + frameRateDivisor +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+package dev.nautchkafe.animation;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * A latency histogram with power-of-two microsecond buckets.
+ *
+ * <p>Bucket {@code 0} counts values below one microsecond and bucket {@code i} counts values in
+ * {@code [2^(i-1), 2^i)} microseconds, so recording is a couple of bit operations and never allocates.
+ * Percentiles are therefore reported as the upper bound of the bucket they fall into.</p>
+ *
+ * <p>Instances handed out in a {@link KeyframeMetricsSnapshot} are never modified again.</p>
+ */
+public final class KeyframeLatencyHistogram {
+
+    private static final int BUCKET_COUNT = 32;
+
+    private final long[] buckets;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    KeyframeLatencyHistogram() {
+        this.buckets = new long[BUCKET_COUNT];
+    }
+
+    /**
+     * Records one latency value. Negative values are recorded as zero.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    void record(final long nanos) {
+        final long value = Math.max(nanos, 0L);
+        final long micros = value / 1_000L;
+        final int bucket = Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+
+        buckets[bucket]++;
+        count++;
+        totalNanos += value;
+        maxNanos = Math.max(maxNanos, value);
+    }
+
+    /**
+     * Adds every value recorded by another histogram to this one.
+     *
+     * @param other the histogram to add.
+     */
+    void addAll(final KeyframeLatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            buckets[bucket] += other.buckets[bucket];
+        }
+
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    /**
+     * Discards every recorded value.
+     */
+    void reset() {
+        Arrays.fill(buckets, 0L);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * Copies the recorded values into a new histogram and resets this one.
+     *
+     * @return a histogram holding the values recorded since the previous reset.
+     */
+    KeyframeLatencyHistogram snapshotAndReset() {
+        final KeyframeLatencyHistogram snapshot = new KeyframeLatencyHistogram();
+        snapshot.addAll(this);
+        reset();
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the value count.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the arithmetic mean of the recorded values.
+     *
+     * @return the mean latency, or zero if nothing was recorded.
+     */
+    public Duration mean() {
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos / count);
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the maximum latency, or zero if nothing was recorded.
+     */
+    public Duration max() {
+        return Duration.ofNanos(maxNanos);
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile, capped at the maximum value.
+     *
+     * @param percentile the percentile between 0 and 100, such as 99.
+     * @return the approximate latency at the percentile, or zero if nothing was recorded.
+     */
+    public Duration percentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(upperBoundNanos(bucket), maxNanos));
+            }
+        }
+
+        return max();
+    }
+
+    private static long upperBoundNanos(final int bucket) {
+        return (1L << bucket) * 1_000L;
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeLatencyHistogram{" +
+                "count=" + count +
+                ", mean=" + mean() +
+                ", p99=" + percentile(99) +
+                ", max=" + max() +
+                '}';
+    }
+}
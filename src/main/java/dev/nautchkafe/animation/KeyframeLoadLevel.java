@@ -0,0 +1,22 @@
+package dev.nautchkafe.animation;
+
+/**
+ * The load of the server as seen by the animation engine, derived from the measured main thread tick time.
+ */
+public enum KeyframeLoadLevel {
+
+    /**
+     * Ticks fit the tick budget and every animation plays at its full frame rate.
+     */
+    NORMAL,
+
+    /**
+     * Ticks exceed the tick budget, so cosmetic animations play at a lower frame rate.
+     */
+    DEGRADED,
+
+    /**
+     * Ticks exceed the overload threshold, so cosmetic animations are paused and normal ones play at a lower frame rate.
+     */
+    OVERLOADED
+}
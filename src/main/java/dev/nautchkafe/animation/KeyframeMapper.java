@@ -1,44 +1,107 @@
 package dev.nautchkafe.animation;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.vavr.Function1;
-import io.vavr.control.Option;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 /**
  * The {@code KeyframeMapper} class is responsible for managing a cache of keyframes.
  * This class provides the functionality to retrieve a keyframe from the cache or create
  * a new one if it does not exist, using the provided keyframe creator function.
+ *
+ * <p>Entries are namespaced by animation id and configuration, so animations sharing one mapper never
+ * overwrite each other's frames and different configurations never share entries. The cache is bounded by the approximate number of bytes
+ * its keyframes retain and evicts with Caffeine's frequency-aware W-TinyLFU policy.</p>
  */
 public final class KeyframeMapper {
 
-    private final Cache<Integer, Keyframe> keyframeCache;
+    private static final long DEFAULT_MAXIMUM_BYTES = 4L * 1024 * 1024;
+    private static final Duration DEFAULT_EXPIRE_AFTER_ACCESS = Duration.ofMinutes(3);
+
+    private static final int OBJECT_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int STRING_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Cache<KeyframeKey, Keyframe> keyframeCache;
 
     public KeyframeMapper() {
-        keyframeCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(3, TimeUnit.MINUTES)
-                .maximumSize(100)
+        this(DEFAULT_MAXIMUM_BYTES, DEFAULT_EXPIRE_AFTER_ACCESS);
+    }
+
+    /**
+     * @param maximumBytes the approximate number of bytes the cached keyframes may retain.
+     * @param expireAfterAccess how long an entry may stay unused before it expires.
+     */
+    public KeyframeMapper(final long maximumBytes, final Duration expireAfterAccess) {
+        keyframeCache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((KeyframeKey key, Keyframe keyframe) -> estimateRetainedBytes(key, keyframe))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
                 .build();
     }
 
     /**
-     * Retrieves a keyframe from the cache using the given index. If the keyframe
-     * is not present in the cache, it utilizes the provided keyframe creator function
+     * Retrieves a keyframe from the cache using the given animation id, configuration and index. If the
+     * keyframe is not present in the cache, it utilizes the provided keyframe creator function
      * to create and cache the keyframe before returning it.
      *
+     * @param animationId the id of the animation the keyframe belongs to
+     * @param config the configuration the keyframe is generated from
      * @param index the index of the keyframe to retrieve or create
      * @param keyframeCreator a function that creates a keyframe for a given index
      * @return the retrieved or created keyframe
      */
-    public Keyframe findOrCache(final int index, final Function1<Integer, Keyframe> keyframeCreator) {
-        return Option.of(keyframeCache.getIfPresent(index))
-                .getOrElse(() -> {
-                    final Keyframe keyframe = keyframeCreator.apply(index);
-
-                    keyframeCache.put(index, keyframe);
-                    return keyframe;
-                });
+    public Keyframe findOrCache(final String animationId, final KeyframeAnimationMessageConfig config,
+                                final int index, final Function1<Integer, Keyframe> keyframeCreator) {
+        final KeyframeKey key = new KeyframeKey(animationId, config, index);
+        return keyframeCache.get(key, ignored -> keyframeCreator.apply(index));
+    }
+
+    /**
+     * Returns a snapshot of the cache statistics.
+     *
+     * @return the current hit ratio, eviction count, load time and retained size of the cache.
+     */
+    public KeyframeCacheStats stats() {
+        final CacheStats stats = keyframeCache.stats();
+        final long retainedBytes = keyframeCache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+
+        return new KeyframeCacheStats(stats.hitRate(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                stats.totalLoadTime(), stats.averageLoadPenalty(), retainedBytes);
+    }
+
+    /**
+     * Estimates the bytes retained by a cache entry, assuming compressed references and compact strings.
+     * The configuration is not counted, as it is held by the animation as well.
+     *
+     * @param key the entry key.
+     * @param keyframe the cached keyframe.
+     * @return the approximate retained size in bytes.
+     */
+    private static int estimateRetainedBytes(final KeyframeKey key, final Keyframe keyframe) {
+        final int keyBytes = OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES + Integer.BYTES;
+        final int keyframeBytes = OBJECT_HEADER_BYTES + 2 * REFERENCE_BYTES
+                + estimateStringBytes(keyframe.titleMessage())
+                + estimateStringBytes(keyframe.subtitleMessage());
+
+        return keyBytes + keyframeBytes;
+    }
+
+    private static int estimateStringBytes(final String value) {
+        return STRING_BYTES + ARRAY_HEADER_BYTES + value.length();
+    }
+
+    /**
+     * The cache key of a keyframe, scoped to one animation and one configuration, compared by the configuration's
+     * fields.
+     */
+    private record KeyframeKey(String animationId, KeyframeAnimationMessageConfig config, int index) {
     }
 }
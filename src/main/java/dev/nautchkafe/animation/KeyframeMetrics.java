@@ -0,0 +1,220 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.Map;
+
+import java.time.Duration;
+
+/**
+ * Records the meters of one animation engine and publishes them to a {@link KeyframeMetricsSink}
+ * once per interval.
+ *
+ * <p>Animation lifecycle meters are recorded from the engine thread only and update plain fields. Frame
+ * meters are measured by the {@link KeyframeSendStage} on the main thread and added under a lock once per
+ * drain, so the frame path neither synchronizes per frame nor allocates. Only publishing builds a snapshot,
+ * once per interval, and only once a sink is configured. The sink may be swapped from any thread.</p>
+ */
+final class KeyframeMetrics {
+
+    /**
+     * The type reported for animations that were dispatched without a name.
+     */
+    static final String UNNAMED_TYPE = "unnamed";
+
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+    private static final KeyframeMetricsSink NO_SINK = KeyframeMetricsSink.noop();
+
+    private final java.util.Map<String, int[]> activeByType;
+    private final KeyframeLatencyHistogram renderLatency;
+    private final KeyframeLatencyHistogram frameLateness;
+    private volatile KeyframeMetricsSink sink;
+    private volatile long intervalNanos;
+    private long intervalStart;
+    private long framesRendered;
+    private long framesThrottled;
+    private long completedAnimations;
+    private long cancelledAnimations;
+    private long droppedAnimations;
+    private long componentCacheHits;
+    private long componentCacheMisses;
+
+    /**
+     * @param now the clock value the first interval starts at.
+     */
+    KeyframeMetrics(final long now) {
+        this.activeByType = new java.util.HashMap<>();
+        this.renderLatency = new KeyframeLatencyHistogram();
+        this.frameLateness = new KeyframeLatencyHistogram();
+        this.sink = NO_SINK;
+        this.intervalNanos = DEFAULT_INTERVAL.toNanos();
+        this.intervalStart = now;
+        this.componentCacheHits = KeyframeCompiler.componentCacheHits();
+        this.componentCacheMisses = KeyframeCompiler.componentCacheMisses();
+    }
+
+    /**
+     * Sets the sink the metrics are published to, and how often.
+     *
+     * @param sink the receiving sink.
+     * @param interval the publishing interval.
+     */
+    void sink(final KeyframeMetricsSink sink, final Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Metrics interval must be positive: " + interval);
+        }
+
+        this.intervalNanos = interval.toNanos();
+        this.sink = sink;
+    }
+
+    /**
+     * Records that an animation started playing.
+     *
+     * @param type the animation type.
+     */
+    void animationStarted(final String type) {
+        activeByType.computeIfAbsent(type, ignored -> new int[1])[0]++;
+    }
+
+    /**
+     * Records that a playing animation ended.
+     *
+     * @param type the animation type.
+     * @param completed true if it played to its last frame, false if it was stopped early.
+     */
+    void animationEnded(final String type, final boolean completed) {
+        final int[] active = activeByType.get(type);
+        if (active != null && active[0] > 0) {
+            active[0]--;
+        }
+
+        if (completed) {
+            completedAnimations++;
+        } else {
+            cancelledAnimations++;
+        }
+    }
+
+    /**
+     * Records that an animation was discarded before it showed a single frame.
+     */
+    void animationDropped() {
+        droppedAnimations++;
+    }
+
+    /**
+     * Adds the frames sent by one drain of the send stage.
+     *
+     * @param frames the number of timeline frames sent.
+     * @param throttled the number of frames held back by the bandwidth budget.
+     * @param drainRenderLatency the time spent rendering each of the frames.
+     * @param drainFrameLateness how long after its deadline each of the frames was sent.
+     */
+    synchronized void framesSent(final long frames, final long throttled,
+                                 final KeyframeLatencyHistogram drainRenderLatency,
+                                 final KeyframeLatencyHistogram drainFrameLateness) {
+        framesRendered += frames;
+        framesThrottled += throttled;
+        renderLatency.addAll(drainRenderLatency);
+        frameLateness.addAll(drainFrameLateness);
+    }
+
+    /**
+     * Publishes a snapshot and starts a new interval if the current interval elapsed.
+     *
+     * @param now the current clock value.
+     * @param averageTickNanos the measured average main thread tick time.
+     * @param loadLevel the current load level of the engine.
+     */
+    void publishIfDue(final long now, final long averageTickNanos, final KeyframeLoadLevel loadLevel) {
+        final long elapsed = now - intervalStart;
+        if (elapsed < intervalNanos) {
+            return;
+        }
+
+        intervalStart = now;
+        final KeyframeMetricsSink currentSink = sink;
+        if (currentSink == NO_SINK) {
+            discardInterval();
+            return;
+        }
+
+        currentSink.publish(snapshot(elapsed, averageTickNanos, loadLevel));
+    }
+
+    /**
+     * Resets the interval counters without building a snapshot nobody would receive.
+     */
+    private void discardInterval() {
+        synchronized (this) {
+            framesRendered = 0;
+            framesThrottled = 0;
+            renderLatency.reset();
+            frameLateness.reset();
+        }
+
+        componentCacheHits = KeyframeCompiler.componentCacheHits();
+        componentCacheMisses = KeyframeCompiler.componentCacheMisses();
+        completedAnimations = 0;
+        cancelledAnimations = 0;
+        droppedAnimations = 0;
+    }
+
+    /**
+     * Builds the snapshot of the elapsed interval and resets the interval counters.
+     *
+     * @param elapsed the length of the interval in nanoseconds.
+     * @param averageTickNanos the measured average main thread tick time.
+     * @param loadLevel the current load level of the engine.
+     * @return the snapshot of the interval.
+     */
+    private KeyframeMetricsSnapshot snapshot(final long elapsed, final long averageTickNanos,
+                                             final KeyframeLoadLevel loadLevel) {
+        final long hits = KeyframeCompiler.componentCacheHits();
+        final long misses = KeyframeCompiler.componentCacheMisses();
+        final long intervalHits = hits - componentCacheHits;
+        final long intervalLookups = intervalHits + misses - componentCacheMisses;
+
+        Map<String, Integer> active = HashMap.empty();
+        for (final java.util.Map.Entry<String, int[]> entry : activeByType.entrySet()) {
+            if (entry.getValue()[0] > 0) {
+                active = active.put(entry.getKey(), entry.getValue()[0]);
+            }
+        }
+
+        final long frames;
+        final long throttled;
+        final KeyframeLatencyHistogram intervalRenderLatency;
+        final KeyframeLatencyHistogram intervalFrameLateness;
+        synchronized (this) {
+            frames = framesRendered;
+            throttled = framesThrottled;
+            intervalRenderLatency = renderLatency.snapshotAndReset();
+            intervalFrameLateness = frameLateness.snapshotAndReset();
+            framesRendered = 0;
+            framesThrottled = 0;
+        }
+
+        final KeyframeMetricsSnapshot snapshot = new KeyframeMetricsSnapshot(
+                Duration.ofNanos(elapsed),
+                active,
+                frames,
+                frames * 1_000_000_000.0 / elapsed,
+                throttled,
+                intervalRenderLatency,
+                intervalFrameLateness,
+                intervalLookups == 0 ? 1.0 : (double) intervalHits / intervalLookups,
+                completedAnimations,
+                cancelledAnimations,
+                droppedAnimations,
+                Duration.ofNanos(averageTickNanos),
+                loadLevel);
+
+        componentCacheHits = hits;
+        componentCacheMisses = misses;
+        completedAnimations = 0;
+        cancelledAnimations = 0;
+        droppedAnimations = 0;
+        return snapshot;
+    }
+}
@@ -0,0 +1,38 @@
+package dev.nautchkafe.animation;
+
+/**
+ * Receives the metrics of an animation engine once per publishing interval.
+ *
+ * <p>Snapshots are published from the engine thread, so implementations should hand them off quickly,
+ * for example to a metrics registry or a queue, instead of doing blocking work.</p>
+ */
+@FunctionalInterface
+public interface KeyframeMetricsSink {
+
+    /**
+     * Receives the metrics recorded during the last interval.
+     *
+     * @param snapshot the immutable metrics of the interval.
+     */
+    void publish(final KeyframeMetricsSnapshot snapshot);
+
+    /**
+     * Provides a sink that discards every snapshot.
+     *
+     * @return the no-op sink.
+     */
+    static KeyframeMetricsSink noop() {
+        return snapshot -> {
+        };
+    }
+
+    /**
+     * Creates a sink that keeps the most recent snapshots in memory, intended for tests and debugging.
+     *
+     * @param capacity the number of snapshots to keep.
+     * @return a new in-memory sink.
+     */
+    static InMemoryKeyframeMetricsSink inMemory(final int capacity) {
+        return new InMemoryKeyframeMetricsSink(capacity);
+    }
+}
@@ -0,0 +1,41 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.Map;
+
+import java.time.Duration;
+
+/**
+ * The metrics an animation engine recorded during one publishing interval.
+ *
+ * @param interval the length of the interval the counters and histograms cover.
+ * @param activeAnimationsByType the number of playing animations per animation type at the end of the interval.
+ * @param framesRendered the number of timeline frames sent during the interval.
+ * @param framesPerSecond the rendered frames divided by the interval length.
+ * @param throttledFrames how often a due frame was held back by the {@link KeyframeBandwidthBudget}; a frame held
+ *                        back over several ticks is counted once per tick.
+ * @param renderLatency the time spent rendering one timeline frame, including the fan-out to its audience.
+ * @param frameLateness how long after its scheduled deadline each frame was actually sent on the main thread.
+ * @param componentCacheHitRatio the ratio of MiniMessage parses served by the {@link KeyframeCompiler} cache,
+ *                               between 0 and 1, or 1 if nothing was parsed.
+ * @param completedAnimations the animations that played to their last frame.
+ * @param cancelledAnimations the animations stopped early, because they were replaced or their audience left.
+ * @param droppedAnimations the animations discarded without being shown, for example by a drop policy.
+ * @param averageTickTime the moving average of the main thread tick time at the end of the interval.
+ * @param loadLevel the load level the engine degraded animations by at the end of the interval.
+ */
+public record KeyframeMetricsSnapshot(Duration interval, Map<String, Integer> activeAnimationsByType,
+                                      long framesRendered, double framesPerSecond, long throttledFrames,
+                                      KeyframeLatencyHistogram renderLatency, KeyframeLatencyHistogram frameLateness,
+                                      double componentCacheHitRatio, long completedAnimations,
+                                      long cancelledAnimations, long droppedAnimations,
+                                      Duration averageTickTime, KeyframeLoadLevel loadLevel) {
+
+    /**
+     * Returns the number of playing animations across all types.
+     *
+     * @return the total number of active animations.
+     */
+    public int activeAnimations() {
+        return activeAnimationsByType.values().sum().intValue();
+    }
+}
@@ -0,0 +1,23 @@
+package dev.nautchkafe.animation;
+
+/**
+ * How important an animation is when the server is under load. The engine's
+ * {@link KeyframeDegradationPolicy} decides how each priority is degraded at each {@link KeyframeLoadLevel}.
+ */
+public enum KeyframePriority {
+
+    /**
+     * The animation always plays every frame it can and finishes on time, such as a countdown.
+     */
+    CRITICAL,
+
+    /**
+     * The animation carries information but may be shown at a lower frame rate when the server is overloaded.
+     */
+    NORMAL,
+
+    /**
+     * The animation is purely cosmetic and is the first to lose frames, or to be paused, under load.
+     */
+    COSMETIC
+}
@@ -0,0 +1,27 @@
+package dev.nautchkafe.animation;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Tells the {@link KeyframeAnimationEngine} when a player quits, so the animations of the player are retired
+ * on the next engine tick instead of playing on to a player who is gone.
+ */
+final class KeyframeQuitListener implements Listener {
+
+    private final KeyframeAnimationEngine engine;
+
+    /**
+     * @param engine the engine whose animations of quitting players are retired.
+     */
+    KeyframeQuitListener(final KeyframeAnimationEngine engine) {
+        this.engine = engine;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(final PlayerQuitEvent event) {
+        engine.playerQuit(event.getPlayer().getUniqueId());
+    }
+}
@@ -1,14 +1,14 @@
 package dev.nautchkafe.animation;
 
 import net.kyori.adventure.audience.Audience;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.title.Title;
+import net.kyori.adventure.bossbar.BossBar;
 
 import java.time.Duration;
+import java.util.function.ToDoubleFunction;
 
 /**
- * This functional interface is designed for rendering keyframes.
+ * This functional interface is designed for rendering keyframes. Each renderer targets one {@link KeyframeChannel},
+ * the title unless it says otherwise.
  */
 @FunctionalInterface
 public interface KeyframeRenderer {
@@ -22,21 +22,158 @@ public interface KeyframeRenderer {
      */
     void render(final Audience audience, final Keyframe keyframe, final Duration tickDelay);
 
+    /**
+     * Render an already compiled keyframe to an audience. By default, this delegates to
+     * {@link #render(Audience, Keyframe, Duration)} with the source keyframe, so custom renderers keep working.
+     *
+     * @param audience The audience to which the keyframe will be rendered.
+     * @param keyframe The compiled keyframe to be rendered.
+     */
+    default void render(final Audience audience, final CompiledKeyframe keyframe) {
+        render(audience, keyframe.source(), keyframe.times().stay());
+    }
+
+    /**
+     * Render the next frame of a timeline to an audience that was shown the previous frame. By default, this
+     * renders the frame in full; renderers that keep the title on screen can send only what changed.
+     *
+     * @param audience The audience to which the keyframe will be rendered.
+     * @param previous The compiled keyframe rendered before.
+     * @param keyframe The compiled keyframe to be rendered.
+     */
+    default void renderTransition(final Audience audience, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        render(audience, keyframe);
+    }
+
+    /**
+     * Called once after the last frame of a timeline was shown to an audience. By default, this does nothing
+     * and the last title fades out on its own.
+     *
+     * @param audience The audience to which the timeline was rendered.
+     * @param last The last compiled keyframe rendered.
+     */
+    default void renderEnd(final Audience audience, final CompiledKeyframe last) {
+    }
+
+    /**
+     * Returns the renderer one animation task renders with. By default, this renderer is shared by every task;
+     * renderers that keep state per shown animation, such as a boss bar, return a fresh renderer, so animations
+     * playing to the same audience never share that state.
+     *
+     * @return the renderer of one task.
+     */
+    default KeyframeRenderer forPlayback() {
+        return this;
+    }
+
+    /**
+     * Called on the main thread before the first frame of an animation that replaced another one on the same
+     * channel of a player, with the renderer of the replaced animation. By default, this does nothing; renderers
+     * that keep state per shown animation can take over what the replaced animation showed. What was taken over
+     * is then ended by {@link #renderEnd}, even if the animation ends before showing a frame of its own.
+     *
+     * @param replaced The renderer of the replaced animation.
+     * @return true if this renderer now shows what the replaced animation showed.
+     */
+    default boolean takeOver(final KeyframeRenderer replaced) {
+        return false;
+    }
+
+    /**
+     * Estimates how many packets rendering a frame to one member sends, as charged by a {@link KeyframeBandwidthBudget}.
+     * By default, a frame costs a full title: its times, title and subtitle.
+     *
+     * @param previous The compiled keyframe rendered before, or null if the frame is rendered in full.
+     * @param keyframe The compiled keyframe to be rendered.
+     * @return the estimated number of packets.
+     */
+    default int estimatedPackets(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        return 3;
+    }
+
+    /**
+     * Estimates how many bytes rendering a frame to one member sends, as charged by a {@link KeyframeBandwidthBudget}.
+     * By default, a frame costs its title and subtitle.
+     *
+     * @param previous The compiled keyframe rendered before, or null if the frame is rendered in full.
+     * @param keyframe The compiled keyframe to be rendered.
+     * @return the estimated number of bytes.
+     */
+    default int estimatedBytes(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        return keyframe.estimatedTitleBytes() + keyframe.estimatedSubtitleBytes();
+    }
+
+    /**
+     * Returns the player channel this renderer shows frames on. Animations are dispatched on the channel
+     * of their renderer, and at most one animation plays per player and channel at a time.
+     *
+     * @return the channel of the renderer.
+     */
+    default KeyframeChannel channel() {
+        return KeyframeChannel.TITLE;
+    }
+
     /**
      * Provides a default implementation of KeyframeRenderer that uses MiniMessage formatting.
+     * Compiled keyframes are shown as-is, without parsing anything again.
      *
      * @return A MiniMessage based KeyframeRenderer implementation.
      */
     static KeyframeRenderer miniMessageRenderer() {
-        return (audience, frame, tickDelay) -> {
-            final MiniMessage miniMessage = MiniMessage.miniMessage();
-            final Component title = miniMessage.deserialize(frame.titleMessage());
-            final Component subtitle = miniMessage.deserialize(frame.subtitleMessage());
-
-            final Duration fadeIn = Duration.ofMillis(500);
-            final Duration fadeOut = Duration.ofMillis(500);
-            final Title.Times titleFlowTime = Title.Times.times(fadeIn, tickDelay, fadeOut);
-            audience.showTitle(Title.title(title, subtitle, titleFlowTime));
-        };
+        return MiniMessageKeyframeRenderer.INSTANCE;
+    }
+
+    /**
+     * Provides a title session renderer. It shows the first frame in full with times that keep the title on screen,
+     * then sends only the title part that changed between frames through Adventure's title-part API, skips frames
+     * that are identical to the previous one, and fades the title out after the last frame.
+     *
+     * @return A title session based KeyframeRenderer implementation.
+     */
+    static KeyframeRenderer titleSessionRenderer() {
+        return TitleSessionKeyframeRenderer.INSTANCE;
+    }
+
+    /**
+     * Provides an action bar renderer, which shows the title of each frame above the hotbar.
+     *
+     * @return An action bar based KeyframeRenderer implementation.
+     */
+    static KeyframeRenderer actionBarRenderer() {
+        return ActionBarKeyframeRenderer.INSTANCE;
+    }
+
+    /**
+     * Provides a white, full boss bar renderer, which shows the title of each frame as the name of a boss bar.
+     *
+     * @return A boss bar based KeyframeRenderer implementation.
+     */
+    static KeyframeRenderer bossBarRenderer() {
+        return BossBarKeyframeRenderer.DEFAULT;
+    }
+
+    /**
+     * Provides a full boss bar renderer with the given look.
+     *
+     * @param color The color of the boss bar.
+     * @param overlay The overlay of the boss bar.
+     * @return A boss bar based KeyframeRenderer implementation.
+     */
+    static KeyframeRenderer bossBarRenderer(final BossBar.Color color, final BossBar.Overlay overlay) {
+        return bossBarRenderer(color, overlay, keyframe -> BossBar.MAX_PROGRESS);
+    }
+
+    /**
+     * Provides a boss bar renderer, which shows the title of each frame as the name of a boss bar and its progress
+     * as computed from the frame. Each receiver keeps one bar that is mutated in place until the animation ends.
+     *
+     * @param color The color of the boss bar.
+     * @param overlay The overlay of the boss bar.
+     * @param progress The progress of the bar for each frame, between zero and one.
+     * @return A boss bar based KeyframeRenderer implementation.
+     */
+    static KeyframeRenderer bossBarRenderer(final BossBar.Color color, final BossBar.Overlay overlay,
+                                            final ToDoubleFunction<CompiledKeyframe> progress) {
+        return new BossBarKeyframeRenderer(color, overlay, progress);
     }
 }
@@ -0,0 +1,273 @@
+package dev.nautchkafe.animation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The main-thread stage of the animation pipeline.
+ *
+ * <p>The engine thread decides which frames are due and hands their tasks to this stage. Once per server
+ * tick the main thread drains the stage and sends everything staged since the previous drain in one pass,
+ * so every Bukkit and Adventure call happens on the main thread. Two lists are swapped under a lock held
+ * only for the swap itself, so staging and draining do not allocate.</p>
+ *
+ * <p>Each drain sends the frames of one player together, the title, action bar and boss bar updates due for
+ * the player in that tick one after another, before moving on to the next player. The batch is sorted in place
+ * with a heap sort, since {@link List#sort} allocates a merge buffer on every drain.</p>
+ *
+ * <p>A {@link KeyframeBandwidthGovernor} decides which staged frames fit the bandwidth budget. Tasks held back stay
+ * staged for the next drain, where they send whatever frame is the latest by then. Once the server-wide budget
+ * ran out, the next drain starts with the player that was held back first, so the budget rotates through the
+ * players instead of always reaching the same ones.</p>
+ */
+final class KeyframeSendStage {
+
+    private static final long INITIAL_TICK_NANOS = 50_000_000L;
+    private static final int TICK_SMOOTHING = 8;
+    private static final Comparator<KeyframeAnimationTask> BY_PLAYER = Comparator
+            .comparingLong(KeyframeSendStage::playerKey)
+            .thenComparingInt(task -> task.channel().ordinal());
+
+    private final KeyframeClock clock;
+    private final KeyframeMetrics metrics;
+    private final KeyframeLatencyHistogram renderLatency;
+    private final KeyframeLatencyHistogram frameLateness;
+    private final KeyframeBandwidthGovernor governor;
+    private final List<KeyframeAnimationTask> deferred;
+    private long resumeKey;
+    private long lastDrainStart;
+    private volatile long averageTickNanos;
+    private List<KeyframeAnimationTask> staged;
+    private List<KeyframeAnimationTask> draining;
+
+    /**
+     * @param clock the time source used to measure render latency and frame lateness.
+     * @param metrics the metrics receiving the measurements of every drain.
+     */
+    KeyframeSendStage(final KeyframeClock clock, final KeyframeMetrics metrics) {
+        this.clock = clock;
+        this.metrics = metrics;
+        this.renderLatency = new KeyframeLatencyHistogram();
+        this.frameLateness = new KeyframeLatencyHistogram();
+        this.governor = new KeyframeBandwidthGovernor();
+        this.deferred = new ArrayList<>();
+        this.resumeKey = Long.MIN_VALUE;
+        this.staged = new ArrayList<>();
+        this.draining = new ArrayList<>();
+        this.lastDrainStart = Long.MIN_VALUE;
+        this.averageTickNanos = INITIAL_TICK_NANOS;
+    }
+
+    /**
+     * Stages a task that has a frame, or the end of its timeline, waiting to be sent.
+     * Called from the engine thread.
+     *
+     * @param task the task to send on the next drain.
+     */
+    synchronized void stage(final KeyframeAnimationTask task) {
+        staged.add(task);
+    }
+
+    /**
+     * Sends everything staged since the previous drain. Called from the main thread.
+     */
+    void drain() {
+        measureTick();
+        governor.startTick(lastDrainStart);
+
+        final List<KeyframeAnimationTask> batch;
+        synchronized (this) {
+            batch = staged;
+            staged = draining;
+            draining = batch;
+        }
+
+        sortByPlayer(batch);
+
+        final int size = batch.size();
+        final int first = firstIndexOf(batch, resumeKey);
+        boolean resumeKeySet = false;
+        long framesSent = 0;
+        long framesThrottled = 0;
+        for (int offset = 0; offset < size; offset++) {
+            final KeyframeAnimationTask task = batch.get((first + offset) % size);
+            if (!governor.admit(task)) {
+                if (!resumeKeySet && governor.isExhausted()) {
+                    resumeKey = playerKey(task);
+                    resumeKeySet = true;
+                }
+
+                framesThrottled++;
+                deferred.add(task);
+                continue;
+            }
+
+            final long sendStart = clock.nanoTime();
+
+            if (task.send()) {
+                framesSent++;
+                renderLatency.record(clock.nanoTime() - sendStart);
+                frameLateness.record(sendStart - task.sentFrameDeadline());
+            }
+        }
+
+        batch.clear();
+        if (!resumeKeySet) {
+            resumeKey = Long.MIN_VALUE;
+        }
+
+        restageDeferred();
+        if (framesSent > 0 || framesThrottled > 0) {
+            metrics.framesSent(framesSent, framesThrottled, renderLatency, frameLateness);
+            renderLatency.reset();
+            frameLateness.reset();
+        }
+    }
+
+    /**
+     * Stages the tasks held back by the bandwidth budget again, so the next drain sends their latest frame.
+     */
+    private void restageDeferred() {
+        if (deferred.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            for (int index = 0; index < deferred.size(); index++) {
+                staged.add(deferred.get(index));
+            }
+        }
+
+        deferred.clear();
+    }
+
+    /**
+     * Finds where a drain starts in a sorted batch: at the first task of the player with the given key, or
+     * of the next player after it.
+     *
+     * @param batch the tasks sorted by player.
+     * @param key the player key to start at.
+     * @return the index of the first task to send.
+     */
+    private static int firstIndexOf(final List<KeyframeAnimationTask> batch, final long key) {
+        if (key == Long.MIN_VALUE) {
+            return 0;
+        }
+
+        for (int index = 0; index < batch.size(); index++) {
+            if (playerKey(batch.get(index)) >= key) {
+                return index;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Sorts a batch by player and channel without allocating.
+     *
+     * @param batch the tasks to send.
+     */
+    private static void sortByPlayer(final List<KeyframeAnimationTask> batch) {
+        final int size = batch.size();
+        for (int parent = size / 2 - 1; parent >= 0; parent--) {
+            siftDown(batch, parent, size);
+        }
+
+        for (int end = size - 1; end > 0; end--) {
+            Collections.swap(batch, 0, end);
+            siftDown(batch, 0, end);
+        }
+    }
+
+    /**
+     * Moves a task down the heap until it is not smaller than any of its children.
+     *
+     * @param heap the tasks forming the heap.
+     * @param index the index of the task to move.
+     * @param size the number of tasks in the heap.
+     */
+    private static void siftDown(final List<KeyframeAnimationTask> heap, final int index, final int size) {
+        int parent = index;
+        int child;
+        while ((child = 2 * parent + 1) < size) {
+            if (child + 1 < size && BY_PLAYER.compare(heap.get(child + 1), heap.get(child)) > 0) {
+                child++;
+            }
+
+            if (BY_PLAYER.compare(heap.get(child), heap.get(parent)) <= 0) {
+                return;
+            }
+
+            Collections.swap(heap, parent, child);
+            parent = child;
+        }
+    }
+
+    /**
+     * Returns a key that is equal for all tasks of the same player, used to send a player's channels together.
+     *
+     * @param task the staged task.
+     * @return the player key, zero for broadcasts.
+     */
+    private static long playerKey(final KeyframeAnimationTask task) {
+        if (task.owner().isEmpty()) {
+            return 0L;
+        }
+
+        final UUID owner = task.owner().get();
+        return owner.getMostSignificantBits() ^ owner.getLeastSignificantBits();
+    }
+
+    /**
+     * Updates the moving average of the time between two drains, which is the main thread tick time.
+     */
+    private void measureTick() {
+        final long drainStart = clock.nanoTime();
+        if (lastDrainStart != Long.MIN_VALUE) {
+            final long tickNanos = drainStart - lastDrainStart;
+            averageTickNanos += (tickNanos - averageTickNanos) / TICK_SMOOTHING;
+        }
+
+        lastDrainStart = drainStart;
+    }
+
+    /**
+     * Sets the bandwidth budget applied from the next drain on. Safe to call from any thread.
+     *
+     * @param budget the bandwidth budget.
+     */
+    void bandwidthBudget(final KeyframeBandwidthBudget budget) {
+        governor.budget(budget);
+    }
+
+    /**
+     * Forgets the bandwidth used by a player who quit. Safe to call from any thread.
+     *
+     * @param playerId the unique id of the player.
+     */
+    void playerQuit(final UUID playerId) {
+        governor.forget(playerId);
+    }
+
+    /**
+     * Returns the number of players whose bandwidth is tracked.
+     *
+     * @return the number of players with a token bucket.
+     */
+    int trackedPlayers() {
+        return governor.bucketCount();
+    }
+
+    /**
+     * Returns the moving average of the main thread tick time. Safe to call from any thread.
+     *
+     * @return the average tick time in nanoseconds.
+     */
+    long averageTickNanos() {
+        return averageTickNanos;
+    }
+}
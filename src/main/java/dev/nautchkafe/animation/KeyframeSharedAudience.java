@@ -0,0 +1,176 @@
+package dev.nautchkafe.animation;
+
+import org.bukkit.entity.Player;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The members of a shared timeline, such as everyone in a minigame lobby. One timeline dispatched with
+ * {@link KeyframeAnimationDispatcher#shared} plays for all members in lockstep and is advanced once per tick,
+ * however many members it has.
+ *
+ * <p>Players may join or leave at any time and from any thread. A player who joins while the timeline is playing
+ * is shown its current frame on the next server tick and then follows along, instead of starting from the first
+ * frame. A player who leaves has the timeline closed for them, so a boss bar is hidden. The timeline keeps playing
+ * while the audience is empty, so it stays in step with the clock until it ends or is cancelled.</p>
+ *
+ * <p>Members are held weakly and drop out once they go offline.</p>
+ */
+public final class KeyframeSharedAudience {
+
+    private final ConcurrentHashMap<UUID, WeakReference<Player>> members;
+    private final CopyOnWriteArrayList<Runnable> listeners;
+    private final AtomicLong version;
+
+    private KeyframeSharedAudience() {
+        this.members = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.version = new AtomicLong();
+    }
+
+    /**
+     * Factory method to create an empty shared audience.
+     *
+     * @return a new KeyframeSharedAudience instance.
+     */
+    public static KeyframeSharedAudience create() {
+        return new KeyframeSharedAudience();
+    }
+
+    /**
+     * Factory method to create a shared audience with initial members.
+     *
+     * @param players the initial members.
+     * @return a new KeyframeSharedAudience instance.
+     */
+    public static KeyframeSharedAudience of(final Collection<? extends Player> players) {
+        final KeyframeSharedAudience audience = new KeyframeSharedAudience();
+        players.forEach(audience::join);
+        return audience;
+    }
+
+    /**
+     * Adds a player to the audience. Timelines already playing show the player their current frame on the next tick.
+     *
+     * @param player the joining player.
+     * @return true if the player was not a member before.
+     */
+    public boolean join(final Player player) {
+        if (contains(player)) {
+            return false;
+        }
+
+        members.put(player.getUniqueId(), new WeakReference<>(player));
+        changed();
+        return true;
+    }
+
+    /**
+     * Removes a player from the audience. Timelines already playing are closed for the player on the next tick.
+     *
+     * @param player the leaving player.
+     * @return true if the player was a member.
+     */
+    public boolean leave(final Player player) {
+        if (members.remove(player.getUniqueId()) == null) {
+            return false;
+        }
+
+        changed();
+        return true;
+    }
+
+    /**
+     * Determines if a player is a member of the audience.
+     *
+     * @param player the player.
+     * @return true if the player is a member.
+     */
+    public boolean contains(final Player player) {
+        final WeakReference<Player> member = members.get(player.getUniqueId());
+        return member != null && member.get() == player;
+    }
+
+    /**
+     * Returns the number of members, including members who went offline since the last frame was sent.
+     *
+     * @return the number of members.
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Returns a counter that changes whenever a player joins or leaves, so timelines only compare their members
+     * with the audience after a change.
+     *
+     * @return the membership version.
+     */
+    long version() {
+        return version.get();
+    }
+
+    /**
+     * Returns the current members by their unique id.
+     *
+     * @return a live view of the members.
+     */
+    Map<UUID, WeakReference<Player>> members() {
+        return members;
+    }
+
+    /**
+     * Determines if a reference is still the one the audience holds for a player.
+     *
+     * @param playerId the unique id of the player.
+     * @param member the reference to the player.
+     * @return true if the player did not leave since the reference was taken.
+     */
+    boolean holds(final UUID playerId, final WeakReference<Player> member) {
+        return members.get(playerId) == member;
+    }
+
+    /**
+     * Drops a member who went offline or was collected, unless the player joined again since.
+     *
+     * @param playerId the unique id of the player.
+     * @param member the reference to the player that is gone.
+     */
+    void forget(final UUID playerId, final WeakReference<Player> member) {
+        members.remove(playerId, member);
+    }
+
+    /**
+     * Registers a listener told about every change of the members, from the thread making the change.
+     *
+     * @param listener the listener.
+     */
+    void addListener(final Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered before.
+     *
+     * @param listener the listener.
+     */
+    void removeListener(final Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private void changed() {
+        version.incrementAndGet();
+        listeners.forEach(Runnable::run);
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeSharedAudience{members=" + members.size() + "}";
+    }
+}
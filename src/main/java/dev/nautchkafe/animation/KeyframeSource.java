@@ -39,4 +39,15 @@ interface KeyframeSource {
      * @return a Supplier that provides a List of Keyframes
      */
     Supplier<List<Keyframe>> frames(final int cycles);
+
+    /**
+     * Retrieves the keyframes of the animation for a given number of cycles as a random-access sequence.
+     * Implementations that can generate frames by index should override this to skip the intermediate list.
+     *
+     * @param cycles the number of animation cycles
+     * @return a FrameSequence holding the keyframes in playback order
+     */
+    default FrameSequence sequence(final int cycles) {
+        return FrameSequence.of(frames(cycles).get());
+    }
 }
@@ -0,0 +1,344 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.control.Option;
+import net.kyori.adventure.text.Component;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A compact store for the frames of large animation libraries.
+ *
+ * <p>Every distinct title and subtitle string is kept once in a dictionary shared by all animations of the
+ * store, and each frame is packed as two dictionary ids into an int buffer, optionally outside the heap.
+ * {@link Keyframe}s are only created as views when a frame is read. Each dictionary entry also caches its
+ * parsed component, so compiling a stored frame never parses MiniMessage again.</p>
+ *
+ * <p>The sequences of a replaced or removed animation stay readable while they are reachable, such as while
+ * they still play. Once no stored animation uses a dictionary string and every released sequence using it has
+ * been garbage collected, its entry is reclaimed on the next write and its id is reused. Writes are serialized,
+ * reads are safe from any thread.</p>
+ */
+public final class KeyframeStore {
+
+    private static final int INITIAL_DICTIONARY_CAPACITY = 256;
+    private static final int INTS_PER_FRAME = 2;
+    private static final long OBJECT_HEADER_BYTES = 16L;
+    private static final long STRING_BYTES = 24L;
+
+    private final boolean offHeap;
+    private final Map<String, Integer> idsByString;
+    private final Map<String, StoredFrameSequence> sequences;
+    private final ReferenceQueue<StoredFrameSequence> collected;
+    private final Set<ReleasedSequence> released;
+    private volatile String[] strings;
+    private volatile Component[] components;
+    private int[] references;
+    private int[] releasedReferences;
+    private int[] freeIds;
+    private int freeIdCount;
+    private int idCount;
+
+    private KeyframeStore(final boolean offHeap) {
+        this.offHeap = offHeap;
+        this.idsByString = new HashMap<>();
+        this.sequences = new ConcurrentHashMap<>();
+        this.collected = new ReferenceQueue<>();
+        this.released = new HashSet<>();
+        this.strings = new String[INITIAL_DICTIONARY_CAPACITY];
+        this.components = new Component[INITIAL_DICTIONARY_CAPACITY];
+        this.references = new int[INITIAL_DICTIONARY_CAPACITY];
+        this.releasedReferences = new int[INITIAL_DICTIONARY_CAPACITY];
+        this.freeIds = new int[INITIAL_DICTIONARY_CAPACITY];
+    }
+
+    /**
+     * Creates a store that packs frames into int arrays on the heap.
+     *
+     * @return a new empty KeyframeStore instance.
+     */
+    public static KeyframeStore onHeap() {
+        return new KeyframeStore(false);
+    }
+
+    /**
+     * Creates a store that packs frames into direct buffers outside the heap. The dictionary strings
+     * stay on the heap, since every frame view refers to them.
+     *
+     * @return a new empty KeyframeStore instance.
+     */
+    public static KeyframeStore offHeap() {
+        return new KeyframeStore(true);
+    }
+
+    /**
+     * Encodes the frames of an animation, replacing the frames previously stored under the same id.
+     *
+     * @param animationId the id of the animation.
+     * @param keyframes the frames to store; must not be unbounded.
+     * @return the stored frames, which the {@link KeyframeCompiler} compiles from the cached dictionary components.
+     */
+    public FrameSequence put(final String animationId, final FrameSequence keyframes) {
+        return store(animationId, keyframes);
+    }
+
+    /**
+     * Encodes the frames of an animation, replacing the frames previously stored under the same id.
+     *
+     * @param animationId the id of the animation.
+     * @param keyframes the frames to store; must not be unbounded.
+     * @return the stored frames.
+     */
+    synchronized StoredFrameSequence store(final String animationId, final FrameSequence keyframes) {
+        final int size = keyframes.size();
+        if (size == FrameSequence.UNBOUNDED) {
+            throw new IllegalArgumentException("Cannot store the unbounded animation " + animationId);
+        }
+
+        reclaim();
+
+        final IntBuffer frameIds = allocate(size * INTS_PER_FRAME);
+        for (int index = 0; index < size; index++) {
+            final Keyframe keyframe = keyframes.frame(index);
+            frameIds.put(index * INTS_PER_FRAME, idOf(keyframe.titleMessage()));
+            frameIds.put(index * INTS_PER_FRAME + 1, idOf(keyframe.subtitleMessage()));
+        }
+
+        // publishes the new dictionary entries to readers of the returned sequence
+        this.strings = strings;
+
+        final StoredFrameSequence sequence = new StoredFrameSequence(this, animationId, frameIds.asReadOnlyBuffer(), size);
+        for (final int id : sequence.distinctIds()) {
+            references[id]++;
+        }
+
+        final StoredFrameSequence replaced = sequences.put(animationId, sequence);
+        if (replaced != null) {
+            release(replaced);
+        }
+
+        return sequence;
+    }
+
+    /**
+     * Returns the stored frames of an animation.
+     *
+     * @param animationId the id of the animation.
+     * @return the stored frames, or none if the animation is not stored.
+     */
+    public Option<FrameSequence> frames(final String animationId) {
+        return Option.of(sequences.get(animationId));
+    }
+
+    /**
+     * Removes the frames of an animation. Sequences handed out before stay readable.
+     *
+     * @param animationId the id of the animation.
+     * @return true if the animation was stored.
+     */
+    public synchronized boolean remove(final String animationId) {
+        reclaim();
+
+        final StoredFrameSequence removed = sequences.remove(animationId);
+        if (removed == null) {
+            return false;
+        }
+
+        release(removed);
+        return true;
+    }
+
+    /**
+     * Estimates the bytes retained by an animation: its packed frames and the dictionary strings no other
+     * stored animation uses. Cached components are shared with the compiler and not counted.
+     *
+     * @param animationId the id of the animation.
+     * @return the retained bytes, or zero if the animation is not stored.
+     */
+    public synchronized long retainedBytes(final String animationId) {
+        final StoredFrameSequence sequence = sequences.get(animationId);
+        if (sequence == null) {
+            return 0L;
+        }
+
+        long bytes = frameBytes(sequence.size());
+        for (final int id : sequence.distinctIds()) {
+            if (references[id] == 1) {
+                bytes += stringBytes(strings[id]);
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Estimates the bytes retained by all stored animations and the dictionary, including the strings of
+     * released sequences that are still reachable. Entries no longer readable are reclaimed first.
+     *
+     * @return the retained bytes.
+     */
+    public synchronized long retainedBytes() {
+        reclaim();
+
+        long bytes = 0L;
+        for (final StoredFrameSequence sequence : sequences.values()) {
+            bytes += frameBytes(sequence.size());
+        }
+
+        for (int id = 0; id < idCount; id++) {
+            if (strings[id] != null) {
+                bytes += stringBytes(strings[id]);
+            }
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the number of distinct strings in the dictionary. Entries no longer readable are reclaimed first.
+     *
+     * @return the dictionary size.
+     */
+    public synchronized int dictionarySize() {
+        reclaim();
+        return idCount - freeIdCount;
+    }
+
+    /**
+     * Returns the dictionary string of an id.
+     *
+     * @param id the dictionary id.
+     * @return the string.
+     */
+    String string(final int id) {
+        return strings[id];
+    }
+
+    /**
+     * Returns the parsed component of a dictionary string, parsing it on first use.
+     *
+     * @param id the dictionary id.
+     * @return the parsed component.
+     */
+    Component component(final int id) {
+        final Component[] current = components;
+        Component component = current[id];
+        if (component == null) {
+            component = KeyframeCompiler.parse(strings[id]);
+            current[id] = component;
+        }
+
+        return component;
+    }
+
+    private int idOf(final String value) {
+        final Integer existing = idsByString.get(value);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (freeIdCount == 0 && idCount == strings.length) {
+            final int capacity = idCount * 2;
+            strings = Arrays.copyOf(strings, capacity);
+            components = Arrays.copyOf(components, capacity);
+            references = Arrays.copyOf(references, capacity);
+            releasedReferences = Arrays.copyOf(releasedReferences, capacity);
+            freeIds = Arrays.copyOf(freeIds, capacity);
+        }
+
+        final int id = freeIdCount > 0 ? freeIds[--freeIdCount] : idCount++;
+        strings[id] = value;
+        idsByString.put(value, id);
+        return id;
+    }
+
+    /**
+     * Drops a sequence from the stored animations. Its ids stay reserved until it is garbage collected.
+     *
+     * @param sequence the replaced or removed sequence.
+     */
+    private void release(final StoredFrameSequence sequence) {
+        final int[] ids = sequence.distinctIds();
+        for (final int id : ids) {
+            references[id]--;
+            releasedReferences[id]++;
+        }
+
+        released.add(new ReleasedSequence(sequence, ids, collected));
+    }
+
+    /**
+     * Frees the dictionary entries that neither a stored animation nor a reachable released sequence uses.
+     */
+    private void reclaim() {
+        ReleasedSequence sequence;
+        while ((sequence = (ReleasedSequence) collected.poll()) != null) {
+            released.remove(sequence);
+
+            for (final int id : sequence.ids) {
+                if (--releasedReferences[id] == 0 && references[id] == 0) {
+                    idsByString.remove(strings[id]);
+                    strings[id] = null;
+                    components[id] = null;
+                    freeIds[freeIdCount++] = id;
+                }
+            }
+        }
+    }
+
+    private IntBuffer allocate(final int ints) {
+        return offHeap
+                ? ByteBuffer.allocateDirect(ints * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer()
+                : IntBuffer.allocate(ints);
+    }
+
+    private long frameBytes(final int frames) {
+        final long bytes = (long) frames * INTS_PER_FRAME * Integer.BYTES;
+        return offHeap ? bytes : align(OBJECT_HEADER_BYTES + bytes);
+    }
+
+    private static long stringBytes(final String value) {
+        boolean latin1 = true;
+        for (int index = 0; index < value.length() && latin1; index++) {
+            latin1 = value.charAt(index) <= 0xFF;
+        }
+
+        return STRING_BYTES + align(OBJECT_HEADER_BYTES + (long) value.length() * (latin1 ? 1 : 2));
+    }
+
+    private static long align(final long bytes) {
+        return (bytes + 7L) & ~7L;
+    }
+
+    /**
+     * A weak reference to a released sequence, remembering its dictionary ids after it is collected.
+     */
+    private static final class ReleasedSequence extends WeakReference<StoredFrameSequence> {
+
+        private final int[] ids;
+
+        private ReleasedSequence(final StoredFrameSequence sequence, final int[] ids,
+                                 final ReferenceQueue<StoredFrameSequence> queue) {
+            super(sequence, queue);
+            this.ids = ids;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeStore{" +
+                "offHeap=" + offHeap +
+                ", animations=" + sequences.size() +
+                ", dictionarySize=" + (idCount - freeIdCount) +
+                '}';
+    }
+}
@@ -0,0 +1,212 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.collection.List;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.title.Title;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * A keyframe whose MiniMessage title and subtitle contain named slots, such as {@code <count>} or {@code <bar>}.
+ *
+ * <p>The template is parsed once. Each frame then only supplies the slot values, which are substituted
+ * into the pre-parsed component trees instead of concatenating and parsing a new string per frame.
+ * Text values are inserted as plain text, so they never need escaping and cannot inject formatting.
+ * The same template can be filled with per-player values, such as names, for any number of players.</p>
+ *
+ * <pre>
+ * {@code
+ * KeyframeTemplate template = KeyframeTemplate.of("<gold>Starting", "<gray>in <white><count>", "count");
+ * FrameSequence countdown = template.sequence(6, i -> new String[]{String.valueOf(5 - i)});
+ * }
+ * </pre>
+ *
+ * <p>Templates with a single slot can also be filled with a growing bar or a typewriter text. Their frames share
+ * the components of every earlier frame, so all frames together cost as much as the last one.</p>
+ */
+public final class KeyframeTemplate {
+
+    private final String titleMessage;
+    private final String subtitleMessage;
+    private final List<String> slots;
+    private final ComponentTemplate title;
+    private final ComponentTemplate subtitle;
+
+    private KeyframeTemplate(final String titleMessage, final String subtitleMessage, final List<String> slots) {
+        this.titleMessage = titleMessage;
+        this.subtitleMessage = subtitleMessage;
+        this.slots = slots;
+        this.title = ComponentTemplate.parse(titleMessage, slots.asJava());
+        this.subtitle = ComponentTemplate.parse(subtitleMessage, slots.asJava());
+    }
+
+    /**
+     * Factory method to compile a keyframe template.
+     *
+     * @param titleMessage the MiniMessage title, which may contain slot tags.
+     * @param subtitleMessage the MiniMessage subtitle, which may contain slot tags.
+     * @param slots the slot names; values are always given in this order.
+     * @return a new compiled KeyframeTemplate instance.
+     */
+    public static KeyframeTemplate of(final String titleMessage, final String subtitleMessage, final String... slots) {
+        return new KeyframeTemplate(titleMessage, subtitleMessage, List.of(slots));
+    }
+
+    /**
+     * Fills the slots with plain text values and compiles the resulting keyframe without parsing.
+     *
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @param values the slot values, in slot order.
+     * @return the compiled keyframe.
+     */
+    public CompiledKeyframe compile(final Duration tickDelay, final String... values) {
+        return compile(KeyframeCompiler.times(tickDelay), values);
+    }
+
+    /**
+     * Fills the slots with plain text values and compiles the resulting keyframe without parsing.
+     *
+     * @param times the fade and stay times of the title.
+     * @param values the slot values, in slot order.
+     * @return the compiled keyframe.
+     */
+    public CompiledKeyframe compile(final Title.Times times, final String... values) {
+        requireValues(values.length);
+
+        final ComponentLike[] components = new ComponentLike[values.length];
+        for (int index = 0; index < values.length; index++) {
+            components[index] = Component.text(values[index]);
+        }
+
+        return CompiledKeyframe.of(keyframe(values), title.apply(components), subtitle.apply(components), times);
+    }
+
+    /**
+     * Fills the slots with plain text values and returns the MiniMessage source of the resulting keyframe,
+     * for renderers that work on raw keyframes.
+     *
+     * @param values the slot values, in slot order.
+     * @return the filled keyframe.
+     */
+    public Keyframe keyframe(final String... values) {
+        requireValues(values.length);
+        return new Keyframe(title.source(values), subtitle.source(values));
+    }
+
+    /**
+     * Fills the slots with components, such as a styled player name, and returns the title and subtitle.
+     *
+     * @param tickDelay the delay between frames, used as the title stay time.
+     * @param values the slot values, in slot order.
+     * @return the filled title, with the times of the given tick delay.
+     */
+    public Title title(final Duration tickDelay, final ComponentLike... values) {
+        requireValues(values.length);
+        return Title.title(title.apply(values), subtitle.apply(values), KeyframeCompiler.times(tickDelay));
+    }
+
+    /**
+     * Creates a streaming frame sequence whose frames fill this template with the values of their index.
+     * The {@link KeyframeCompiler} recognizes such sequences and fills the pre-parsed trees instead of parsing.
+     *
+     * @param size the number of frames in the sequence.
+     * @param values the function producing the slot values of each frame, in slot order.
+     * @return a new streaming FrameSequence.
+     */
+    public FrameSequence sequence(final int size, final IntFunction<String[]> values) {
+        return new TemplateFrameSequence(this, size, values, FrameSequence.DEFAULT_LOOK_AHEAD);
+    }
+
+    /**
+     * Creates a streaming frame sequence whose frames fill the single slot of this template with a growing bar:
+     * the first frame shows the unit once, and every frame after it shows one unit more. Frames share the
+     * components of the bar shown before, so compiling all frames takes time linear in the length of the full bar
+     * instead of quadratic.
+     *
+     * @param size the number of frames in the sequence.
+     * @param unit the plain text the bar grows by in every frame.
+     * @return a new streaming FrameSequence.
+     */
+    public FrameSequence growingBar(final int size, final String unit) {
+        requireValues(1);
+        if (size < 0) {
+            throw new IllegalArgumentException("Frame count must not be negative: " + size);
+        }
+
+        final int[] lengths = new int[size];
+        for (int index = 0; index < size; index++) {
+            lengths[index] = (index + 1) * unit.length();
+        }
+
+        return new PrefixFrameSequence(this, ComponentPrefixes.of(unit.repeat(size)), lengths);
+    }
+
+    /**
+     * Creates a streaming frame sequence whose frames fill the single slot of this template with a text typed
+     * out one character at a time: the first frame shows its first character, and the last frame the whole text.
+     * Frames share the components of the text shown before, so compiling all frames takes time linear in the
+     * length of the text instead of quadratic.
+     *
+     * @param text the plain text to type out.
+     * @return a new streaming FrameSequence with one frame per character.
+     */
+    public FrameSequence typewriter(final String text) {
+        requireValues(1);
+
+        final int[] lengths = new int[text.codePointCount(0, text.length())];
+        int end = 0;
+        for (int index = 0; index < lengths.length; index++) {
+            end += Character.charCount(text.codePointAt(end));
+            lengths[index] = end;
+        }
+
+        return new PrefixFrameSequence(this, ComponentPrefixes.of(text), lengths);
+    }
+
+    /**
+     * Fills the single slot with a component and compiles the resulting keyframe, creating its source keyframe
+     * only when it is first asked for.
+     *
+     * @param times the fade and stay times of the title.
+     * @param value the slot value.
+     * @param valueBytes the estimated size of the slot value.
+     * @param source creates the keyframe the filled template stands for.
+     * @return the compiled keyframe.
+     */
+    CompiledKeyframe compile(final Title.Times times, final ComponentLike value, final int valueBytes,
+                             final Supplier<Keyframe> source) {
+        requireValues(1);
+
+        final ComponentLike[] components = {value};
+        final int[] bytes = {valueBytes};
+        return CompiledKeyframe.deferred(source, title.apply(components), subtitle.apply(components), times,
+                title.estimatedBytes(components, bytes), subtitle.estimatedBytes(components, bytes));
+    }
+
+    /**
+     * Returns the slot names of this template.
+     *
+     * @return the slot names, in value order.
+     */
+    public List<String> slots() {
+        return slots;
+    }
+
+    private void requireValues(final int valueCount) {
+        if (valueCount != slots.size()) {
+            throw new IllegalArgumentException("Expected " + slots.size() + " slot values " + slots + ", got " + valueCount);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeTemplate{" +
+                "titleMessage='" + titleMessage + '\'' +
+                ", subtitleMessage='" + subtitleMessage + '\'' +
+                ", slots=" + slots +
+                '}';
+    }
+}
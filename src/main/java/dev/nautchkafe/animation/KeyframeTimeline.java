@@ -0,0 +1,404 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.Tuple;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+import io.vavr.collection.TreeSet;
+
+import java.time.Duration;
+
+/**
+ * A composition of animations played by the engine as one dispatch: parts played in sequence,
+ * in parallel on different channels, looped, or separated by delays.
+ *
+ * <p>Timelines are evaluated lazily. Each part is compiled once and combined by mapping frame indexes,
+ * so a looped part reads the same frames again on every pass and a loop of fifty passes costs about as
+ * much memory as a single one. Parts may use different tick delays; the timeline then plays on the
+ * greatest common tick and sends the frames of slower parts only on their own ticks.</p>
+ *
+ * <pre>
+ * {@code
+ * KeyframeTimeline intro = KeyframeTimeline.of(countdown, 5, Duration.ofSeconds(1))
+ *         .then(KeyframeTimeline.delay(Duration.ofMillis(500)))
+ *         .then(KeyframeTimeline.of(spinner, 8, Duration.ofMillis(250)).loop(50));
+ * }
+ * </pre>
+ */
+public final class KeyframeTimeline {
+
+    private static final int LOOP_FOREVER = -1;
+
+    private final Node node;
+
+    private KeyframeTimeline(final Node node) {
+        this.node = node;
+    }
+
+    /**
+     * Creates a timeline that plays a frame sequence on the title channel.
+     *
+     * @param keyframes the frames to play.
+     * @param tickDelay the delay between the frames.
+     * @return a new KeyframeTimeline instance.
+     */
+    public static KeyframeTimeline of(final FrameSequence keyframes, final Duration tickDelay) {
+        return of(KeyframeChannel.TITLE, keyframes, tickDelay);
+    }
+
+    /**
+     * Creates a timeline that plays a frame sequence on the given channel.
+     *
+     * @param channel the channel the frames are shown on.
+     * @param keyframes the frames to play.
+     * @param tickDelay the delay between the frames.
+     * @return a new KeyframeTimeline instance.
+     */
+    public static KeyframeTimeline of(final KeyframeChannel channel, final FrameSequence keyframes,
+                                      final Duration tickDelay) {
+        return new KeyframeTimeline(new Frames(channel, keyframes, positiveMillis(tickDelay)));
+    }
+
+    /**
+     * Creates a timeline that plays the frames of an animation on the title channel.
+     *
+     * @param animation the animation to play.
+     * @param cycles the number of animation cycles.
+     * @param tickDelay the delay between the frames.
+     * @return a new KeyframeTimeline instance.
+     */
+    public static KeyframeTimeline of(final KeyframeAnimation animation, final int cycles, final Duration tickDelay) {
+        return of(animation.sequence(cycles), tickDelay);
+    }
+
+    /**
+     * Creates a timeline in which nothing is sent for the given duration.
+     *
+     * @param duration how long the delay lasts.
+     * @return a new KeyframeTimeline instance.
+     */
+    public static KeyframeTimeline delay(final Duration duration) {
+        return new KeyframeTimeline(new Delay(positiveMillis(duration)));
+    }
+
+    /**
+     * Creates a timeline that plays the given timelines one after another. Only the last one may loop forever.
+     *
+     * @param timelines the timelines in playback order.
+     * @return a new KeyframeTimeline instance.
+     */
+    public static KeyframeTimeline sequence(final KeyframeTimeline... timelines) {
+        final List<Node> nodes = List.of(timelines).map(timeline -> timeline.node);
+        if (nodes.dropRight(1).exists(Node::isUnbounded)) {
+            throw new IllegalArgumentException("Only the last part of a sequence may loop forever");
+        }
+
+        return new KeyframeTimeline(new Sequence(nodes));
+    }
+
+    /**
+     * Creates a timeline that plays the given timelines at the same time, each on its own channels.
+     * The timeline lasts as long as the longest of them.
+     *
+     * @param timelines the timelines to play together, which must not share a channel.
+     * @return a new KeyframeTimeline instance.
+     */
+    public static KeyframeTimeline parallel(final KeyframeTimeline... timelines) {
+        final List<Node> nodes = List.of(timelines).map(timeline -> timeline.node);
+        final List<KeyframeChannel> channels = nodes.flatMap(Node::channels);
+        if (channels.distinct().size() != channels.size()) {
+            throw new IllegalArgumentException("Parallel timelines must play on different channels: " + channels);
+        }
+
+        return new KeyframeTimeline(new Parallel(nodes));
+    }
+
+    /**
+     * Returns a timeline that plays this timeline and then the given one.
+     *
+     * @param next the timeline played after this one.
+     * @return a new KeyframeTimeline instance.
+     */
+    public KeyframeTimeline then(final KeyframeTimeline next) {
+        return sequence(this, next);
+    }
+
+    /**
+     * Returns a timeline that plays this timeline the given number of times.
+     *
+     * @param times the number of passes.
+     * @return a new KeyframeTimeline instance.
+     */
+    public KeyframeTimeline loop(final int times) {
+        if (times < 0) {
+            throw new IllegalArgumentException("Loop count must not be negative: " + times);
+        }
+
+        return new KeyframeTimeline(new Loop(node, times));
+    }
+
+    /**
+     * Returns a timeline that plays this timeline over and over until it is cancelled.
+     *
+     * @return a new KeyframeTimeline instance.
+     */
+    public KeyframeTimeline loopForever() {
+        return new KeyframeTimeline(new Loop(node, LOOP_FOREVER));
+    }
+
+    /**
+     * Returns the tick the timeline is played on, the greatest common divisor of the tick delays and delays of its parts.
+     *
+     * @return the tick of the timeline.
+     */
+    public Duration tick() {
+        final long tickMillis = node.tickMillis();
+        return Duration.ofMillis(tickMillis == 0L ? 1L : tickMillis);
+    }
+
+    /**
+     * Returns the channels this timeline shows frames on.
+     *
+     * @return the channels, in the order {@link KeyframeChannel} declares them, not the order the timeline uses them.
+     */
+    public Set<KeyframeChannel> channels() {
+        return TreeSet.ofAll(node.channels());
+    }
+
+    /**
+     * Compiles one track per channel. Every track lasts as long as the whole timeline, in ticks of {@link #tick()},
+     * and holds gaps wherever nothing is sent on its channel.
+     *
+     * @return the compiled tracks by channel.
+     */
+    Map<KeyframeChannel, CompiledFrameSequence> compile() {
+        final long tickMillis = tick().toMillis();
+        return channels().toLinkedMap(channel -> Tuple.of(channel, node.track(channel, tickMillis)));
+    }
+
+    /**
+     * Clamps a frame count to the sequence size range, where counts that do not fit mean a sequence without end.
+     *
+     * @param size the frame count.
+     * @return the frame count, or {@link FrameSequence#UNBOUNDED}.
+     */
+    static int saturatedSize(final long size) {
+        return (int) Math.min(size, FrameSequence.UNBOUNDED);
+    }
+
+    private static long positiveMillis(final Duration duration) {
+        final long millis = duration.toMillis();
+        if (millis <= 0L) {
+            throw new IllegalArgumentException("Timeline durations must be at least one millisecond: " + duration);
+        }
+
+        return millis;
+    }
+
+    private static long gcd(final long first, final long second) {
+        return second == 0L ? first : gcd(second, first % second);
+    }
+
+    private static CompiledFrameSequence padded(final CompiledFrameSequence track, final int size) {
+        return track.size() >= size
+                ? track
+                : new ConcatCompiledFrameSequence(new CompiledFrameSequence[]{track, new GapCompiledFrameSequence(size - track.size())});
+    }
+
+    @Override
+    public String toString() {
+        return "KeyframeTimeline{" +
+                "node=" + node +
+                '}';
+    }
+
+    /**
+     * One part of a timeline.
+     */
+    private interface Node {
+
+        /**
+         * Returns the greatest common divisor of the tick delays and delays of this part, zero if it has none.
+         */
+        long tickMillis();
+
+        /**
+         * Returns the length of this part in ticks of the given length.
+         */
+        int size(long tickMillis);
+
+        /**
+         * Returns the channels this part shows frames on.
+         */
+        List<KeyframeChannel> channels();
+
+        /**
+         * Compiles the frames of this part shown on the given channel, lasting exactly {@link #size(long)} ticks.
+         */
+        CompiledFrameSequence track(KeyframeChannel channel, long tickMillis);
+
+        /**
+         * Determines if this part never ends.
+         */
+        boolean isUnbounded();
+    }
+
+    private record Frames(KeyframeChannel channel, FrameSequence keyframes, long frameMillis) implements Node {
+
+        @Override
+        public long tickMillis() {
+            return frameMillis;
+        }
+
+        @Override
+        public int size(final long tickMillis) {
+            return saturatedSize((long) keyframes.size() * (frameMillis / tickMillis));
+        }
+
+        @Override
+        public List<KeyframeChannel> channels() {
+            return List.of(channel);
+        }
+
+        @Override
+        public boolean isUnbounded() {
+            return keyframes.size() == FrameSequence.UNBOUNDED;
+        }
+
+        @Override
+        public CompiledFrameSequence track(final KeyframeChannel trackChannel, final long tickMillis) {
+            if (trackChannel != channel) {
+                return new GapCompiledFrameSequence(size(tickMillis));
+            }
+
+            final CompiledFrameSequence compiled = KeyframeCompiler.compile(keyframes, Duration.ofMillis(frameMillis));
+            final int ticksPerFrame = (int) (frameMillis / tickMillis);
+            return ticksPerFrame == 1 ? compiled : new StretchedCompiledFrameSequence(compiled, ticksPerFrame);
+        }
+    }
+
+    private record Delay(long delayMillis) implements Node {
+
+        @Override
+        public long tickMillis() {
+            return delayMillis;
+        }
+
+        @Override
+        public int size(final long tickMillis) {
+            return saturatedSize(delayMillis / tickMillis);
+        }
+
+        @Override
+        public List<KeyframeChannel> channels() {
+            return List.empty();
+        }
+
+        @Override
+        public boolean isUnbounded() {
+            return false;
+        }
+
+        @Override
+        public CompiledFrameSequence track(final KeyframeChannel channel, final long tickMillis) {
+            return new GapCompiledFrameSequence(size(tickMillis));
+        }
+    }
+
+    private record Sequence(List<Node> parts) implements Node {
+
+        @Override
+        public long tickMillis() {
+            return parts.map(Node::tickMillis).fold(0L, KeyframeTimeline::gcd);
+        }
+
+        @Override
+        public int size(final long tickMillis) {
+            return saturatedSize(parts.map(part -> (long) part.size(tickMillis)).sum().longValue());
+        }
+
+        @Override
+        public List<KeyframeChannel> channels() {
+            return parts.flatMap(Node::channels).distinct();
+        }
+
+        @Override
+        public boolean isUnbounded() {
+            return parts.exists(Node::isUnbounded);
+        }
+
+        @Override
+        public CompiledFrameSequence track(final KeyframeChannel channel, final long tickMillis) {
+            return new ConcatCompiledFrameSequence(parts
+                    .map(part -> part.track(channel, tickMillis))
+                    .toJavaArray(CompiledFrameSequence[]::new));
+        }
+    }
+
+    private record Parallel(List<Node> parts) implements Node {
+
+        @Override
+        public long tickMillis() {
+            return parts.map(Node::tickMillis).fold(0L, KeyframeTimeline::gcd);
+        }
+
+        @Override
+        public int size(final long tickMillis) {
+            return parts.map(part -> part.size(tickMillis)).max().getOrElse(0);
+        }
+
+        @Override
+        public List<KeyframeChannel> channels() {
+            return parts.flatMap(Node::channels);
+        }
+
+        @Override
+        public boolean isUnbounded() {
+            return parts.exists(Node::isUnbounded);
+        }
+
+        @Override
+        public CompiledFrameSequence track(final KeyframeChannel channel, final long tickMillis) {
+            final int size = size(tickMillis);
+            return parts.find(part -> part.channels().contains(channel))
+                    .map(part -> padded(part.track(channel, tickMillis), size))
+                    .getOrElse(() -> new GapCompiledFrameSequence(size));
+        }
+    }
+
+    private record Loop(Node part, int times) implements Node {
+
+        @Override
+        public long tickMillis() {
+            return part.tickMillis();
+        }
+
+        @Override
+        public int size(final long tickMillis) {
+            final int passSize = part.size(tickMillis);
+            if (passSize == 0) {
+                return 0;
+            }
+
+            return times == LOOP_FOREVER || passSize == FrameSequence.UNBOUNDED
+                    ? FrameSequence.UNBOUNDED
+                    : saturatedSize((long) passSize * times);
+        }
+
+        @Override
+        public List<KeyframeChannel> channels() {
+            return part.channels();
+        }
+
+        @Override
+        public boolean isUnbounded() {
+            return part.isUnbounded() || (times == LOOP_FOREVER && part.size(part.tickMillis()) > 0);
+        }
+
+        @Override
+        public CompiledFrameSequence track(final KeyframeChannel channel, final long tickMillis) {
+            final CompiledFrameSequence pass = part.track(channel, tickMillis);
+            return pass.size() == 0 ? pass : new LoopedCompiledFrameSequence(pass, size(tickMillis));
+        }
+    }
+}
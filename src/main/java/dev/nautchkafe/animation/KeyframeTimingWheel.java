@@ -0,0 +1,189 @@
+package dev.nautchkafe.animation;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel that buckets scheduled entries by their nanosecond deadline.
+ *
+ * <p>Each advance only walks the buckets of the wheel ticks that elapsed since the previous advance,
+ * so the cost per engine tick is proportional to the entries hashed into those buckets rather than
+ * to every registered animation. Entries are intrusive doubly linked nodes, which makes scheduling
+ * and cancellation constant time and allocation free.</p>
+ *
+ * <p>This class is not thread-safe and is meant to be owned by the engine thread.</p>
+ */
+final class KeyframeTimingWheel {
+
+    private final Entry[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime;
+    private long processedTick;
+    private int size;
+
+    /**
+     * @param tickNanos the resolution of one wheel tick in nanoseconds.
+     * @param wheelSize the number of buckets, rounded up to the next power of two.
+     * @param startTime the clock value the wheel ticks are counted from.
+     */
+    KeyframeTimingWheel(final long tickNanos, final int wheelSize, final long startTime) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Wheel tick must be positive: " + tickNanos);
+        }
+
+        final int normalizedSize = Integer.highestOneBit(Math.max(wheelSize, 1) * 2 - 1);
+        this.buckets = new Entry[normalizedSize];
+        this.mask = normalizedSize - 1;
+        this.tickNanos = tickNanos;
+        this.startTime = startTime;
+        this.processedTick = -1;
+    }
+
+    /**
+     * Schedules an entry to expire at the given deadline. Entries expire on the wheel tick nearest to
+     * their deadline, so at most half a wheel tick early; deadlines that already passed expire on the
+     * next wheel tick.
+     *
+     * @param entry the entry to schedule, which must not be scheduled already.
+     * @param deadline the clock value at which the entry becomes due.
+     */
+    void schedule(final Entry entry, final long deadline) {
+        if (entry.bucket >= 0) {
+            throw new IllegalStateException("Entry is already scheduled");
+        }
+
+        final long targetTick = Math.max(nearestTick(deadline), processedTick + 1);
+        final int bucket = (int) (targetTick & mask);
+
+        entry.deadline = deadline;
+        entry.remainingRounds = (targetTick - processedTick - 1) / buckets.length;
+        entry.bucket = bucket;
+        linkFirst(bucket, entry);
+        size++;
+    }
+
+    /**
+     * Removes a scheduled entry from the wheel. Does nothing if the entry is not scheduled.
+     *
+     * @param entry the entry to cancel.
+     */
+    void cancel(final Entry entry) {
+        if (entry.bucket < 0) {
+            return;
+        }
+
+        unlink(entry);
+        size--;
+    }
+
+    /**
+     * Advances the wheel up to the given time, handing every expired entry to the consumer.
+     * The consumer may reschedule the entry it receives.
+     *
+     * @param now the current clock value.
+     * @param expired the consumer receiving each expired entry, in no particular order.
+     */
+    void advance(final long now, final Consumer<Entry> expired) {
+        final long targetTick = nearestTick(now);
+
+        while (processedTick < targetTick) {
+            processedTick++;
+            expireBucket((int) (processedTick & mask), expired);
+        }
+    }
+
+    /**
+     * Expires the entries of one bucket whose rounds have run out and counts down the others.
+     *
+     * @param bucket the bucket index.
+     * @param expired the consumer receiving each expired entry.
+     */
+    private void expireBucket(final int bucket, final Consumer<Entry> expired) {
+        Entry entry = buckets[bucket];
+
+        while (entry != null) {
+            final Entry next = entry.next;
+
+            if (entry.remainingRounds <= 0) {
+                unlink(entry);
+                size--;
+                expired.accept(entry);
+            } else {
+                entry.remainingRounds--;
+            }
+
+            entry = next;
+        }
+    }
+
+    /**
+     * Returns the number of entries currently scheduled.
+     *
+     * @return the scheduled entry count.
+     */
+    int size() {
+        return size;
+    }
+
+    private void linkFirst(final int bucket, final Entry entry) {
+        final Entry head = buckets[bucket];
+
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+
+        buckets[bucket] = entry;
+    }
+
+    private void unlink(final Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            buckets[entry.bucket] = entry.next;
+        }
+
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+
+        entry.prev = null;
+        entry.next = null;
+        entry.bucket = -1;
+    }
+
+    private long nearestTick(final long time) {
+        return Math.floorDiv(time - startTime + tickNanos / 2, tickNanos);
+    }
+
+    /**
+     * An intrusive node that can be scheduled on a {@link KeyframeTimingWheel}.
+     */
+    abstract static class Entry {
+
+        private Entry prev;
+        private Entry next;
+        private long deadline;
+        private long remainingRounds;
+        private int bucket = -1;
+
+        /**
+         * Returns the deadline this entry was last scheduled for.
+         *
+         * @return the deadline as a clock value.
+         */
+        final long deadline() {
+            return deadline;
+        }
+
+        /**
+         * Determines if this entry currently sits on a wheel.
+         *
+         * @return true if the entry is scheduled.
+         */
+        final boolean isScheduled() {
+            return bucket >= 0;
+        }
+    }
+}
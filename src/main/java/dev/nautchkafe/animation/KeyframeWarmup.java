@@ -0,0 +1,328 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.title.Title;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * Compiles animations ahead of their first dispatch, typically while the plugin is enabled, so the players
+ * rejoining after a restart do not wait for frames to be generated and parsed.
+ *
+ * <p>Animations and message configurations are registered with their tick delay, then compiled together by
+ * {@link #start()} on a fork-join pool: every animation is one task, and the frames of long animations are split
+ * into ranges compiled in parallel. Equal keyframes still share one compiled instance. The pool is shut down once
+ * the warm-up finished, so it costs nothing afterwards. Closing the warm-up, as the engine does on shutdown, stops
+ * the animations still compiling and completes the running warm-ups with what was compiled until then.</p>
+ *
+ * <p>Dispatches of a registered animation, or of an animation equal to it, use its precompiled frames. The
+ * built-in animations are equal if their configurations are, and are registered together by
+ * {@code BuiltInAnimations.register}. A dispatch that arrives while the warm-up is
+ * still running plays right away: its frames are compiled one at a time until the warm-up result is ready, and
+ * taken from the result from then on. Animations that were not registered, or failed to compile, are compiled
+ * on dispatch as before. Streaming animations only have their first look-ahead batch compiled, which every
+ * dispatch starts from; the rest is compiled while they play, so their memory stays constant.</p>
+ */
+public final class KeyframeWarmup {
+
+    private static final int PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final int CONFIG_CYCLES = -1;
+
+    private final KeyframeClock clock;
+    private final Map<WarmupKey, CompletableFuture<CompiledFrameSequence>> compiled;
+    private final List<Registration> registrations;
+    private final Set<Run> runningWarmups;
+
+    /**
+     * @param clock the time source the warm-up time is measured with.
+     */
+    KeyframeWarmup(final KeyframeClock clock) {
+        this.clock = clock;
+        this.compiled = new ConcurrentHashMap<>();
+        this.registrations = new ArrayList<>();
+        this.runningWarmups = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Registers an animation to be compiled by the next {@link #start()}, for dispatches with the given number of
+     * cycles and tick delay. Dispatches find the frames by the animation's {@code equals}, so animations without
+     * value equality must be dispatched with the registered instance.
+     *
+     * @param animation the animation, such as a {@code CountdownAnimation}.
+     * @param cycles the number of cycles the animation is dispatched with.
+     * @param tickDelay the delay between frames the animation is dispatched with.
+     * @return this warm-up, for chaining.
+     */
+    public KeyframeWarmup animation(final KeyframeAnimation animation, final int cycles, final Duration tickDelay) {
+        return register(new WarmupKey(animation, cycles, tickDelay), () -> animation.sequence(cycles));
+    }
+
+    /**
+     * Registers the custom keyframes of a message configuration to be compiled by the next {@link #start()},
+     * for dispatches with the given tick delay.
+     *
+     * @param config the message configuration.
+     * @param tickDelay the delay between frames the configuration is dispatched with.
+     * @return this warm-up, for chaining.
+     */
+    public KeyframeWarmup config(final KeyframeAnimationMessageConfig config, final Duration tickDelay) {
+        return register(new WarmupKey(config, CONFIG_CYCLES, tickDelay), () -> FrameSequence.of(config.customKeyframes()));
+    }
+
+    /**
+     * Compiles every animation registered since the previous start in parallel and returns right away.
+     * The stage is completed on a pool thread, so callbacks that touch the Bukkit API should switch to the
+     * main thread first.
+     *
+     * @return a stage completed with the report of the warm-up once every animation was compiled or failed, or
+     * once the warm-up was closed, reporting the animations compiled until then.
+     */
+    public CompletionStage<KeyframeWarmupReport> start() {
+        final long startedAt = clock.nanoTime();
+        final ForkJoinPool pool;
+        final List<CompletableFuture<CompiledFrameSequence>> futures;
+
+        synchronized (registrations) {
+            if (registrations.isEmpty()) {
+                return CompletableFuture.completedStage(new KeyframeWarmupReport(Duration.ZERO, 0, 0, 0));
+            }
+
+            pool = new ForkJoinPool(PARALLELISM);
+            futures = new ArrayList<>(registrations.size());
+            for (final Registration registration : registrations) {
+                futures.add(submit(registration, pool));
+            }
+
+            registrations.clear();
+        }
+
+        final Run run = new Run(pool, futures);
+        runningWarmups.add(run);
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, error) -> {
+                    pool.shutdown();
+                    runningWarmups.remove(run);
+                    return report(futures, clock.nanoTime() - startedAt);
+                });
+    }
+
+    /**
+     * Returns the compiled frames of an animation for a dispatch: the warm-up result if it is ready, frames compiled
+     * one at a time until then if the warm-up is still running, or frames compiled in the background if the
+     * animation was never warmed up.
+     *
+     * @param source the animation or configuration the frames belong to.
+     * @param cycles the number of cycles of the dispatch, or {@link #CONFIG_CYCLES} for a configuration.
+     * @param tickDelay the delay between frames of the dispatch.
+     * @param sequence creates the frames of the animation, only called if they are not compiled yet.
+     * @return the compiled frames.
+     */
+    CompiledFrameSequence compiled(final Object source, final int cycles, final Duration tickDelay,
+                                   final Supplier<FrameSequence> sequence) {
+        final CompletableFuture<CompiledFrameSequence> future = compiled.get(new WarmupKey(source, cycles, tickDelay));
+        if (future == null || future.isCompletedExceptionally()) {
+            return KeyframeCompiler.compileInBackground(sequence.get(), tickDelay);
+        }
+
+        final CompiledFrameSequence ready = KeyframeWorkers.resultNow(future);
+        if (ready != null) {
+            return ready;
+        }
+
+        return new DeferredCompiledFrameSequence(sequence.get(), KeyframeCompiler.times(tickDelay), future);
+    }
+
+    /**
+     * Returns the compiled frames of a message configuration for a dispatch, as by {@link #compiled}.
+     *
+     * @param config the message configuration.
+     * @param tickDelay the delay between frames of the dispatch.
+     * @return the compiled frames.
+     */
+    CompiledFrameSequence compiled(final KeyframeAnimationMessageConfig config, final Duration tickDelay) {
+        return compiled(config, CONFIG_CYCLES, tickDelay, () -> FrameSequence.of(config.customKeyframes()));
+    }
+
+    /**
+     * Stops warm-ups that are still running, completing them with the animations compiled until then, and forgets
+     * every precompiled animation.
+     */
+    void close() {
+        synchronized (registrations) {
+            registrations.clear();
+            compiled.clear();
+        }
+
+        runningWarmups.forEach(Run::cancel);
+    }
+
+    private KeyframeWarmup register(final WarmupKey key, final Supplier<FrameSequence> sequence) {
+        synchronized (registrations) {
+            registrations.add(new Registration(key, sequence));
+        }
+
+        return this;
+    }
+
+    /**
+     * Starts compiling one registered animation on the pool of a warm-up and makes its result available to
+     * dispatches. Called while holding the registrations lock, so a concurrent close cannot miss it.
+     *
+     * @param registration the registered animation.
+     * @param pool the pool of the warm-up.
+     * @return the future of the compiled frames.
+     */
+    private CompletableFuture<CompiledFrameSequence> submit(final Registration registration, final ForkJoinPool pool) {
+        final WarmupKey key = registration.key();
+        final CompletableFuture<CompiledFrameSequence> future = CompletableFuture.supplyAsync(
+                () -> compileInParallel(registration.sequence().get(), key.tickDelay()), pool);
+
+        compiled.put(key, future);
+        future.whenComplete((result, error) -> {
+            if (error != null) {
+                compiled.remove(key, future);
+                if (!(error instanceof CancellationException)) {
+                    KeyframeLogger.logInfo("> Error warming up " + key.source() + ": " + error.getMessage());
+                }
+            }
+        });
+
+        return future;
+    }
+
+    /**
+     * Compiles every frame of a sequence on the current fork-join pool, or only the first batch of a streaming
+     * sequence.
+     *
+     * @param sequence the frames to compile.
+     * @param tickDelay the delay between frames.
+     * @return the compiled frames.
+     */
+    private static CompiledFrameSequence compileInParallel(final FrameSequence sequence, final Duration tickDelay) {
+        if (sequence.isStreaming()) {
+            return KeyframeCompiler.compileFirstBatch(sequence, tickDelay);
+        }
+
+        if (sequence.size() == FrameSequence.UNBOUNDED) {
+            throw new IllegalArgumentException("an unbounded animation cannot be warmed up");
+        }
+
+        final CompiledKeyframe[] frames = new CompiledKeyframe[sequence.size()];
+        new CompileRange(sequence, KeyframeCompiler.times(tickDelay), new ConcurrentHashMap<>(), frames, 0, frames.length)
+                .invoke();
+
+        return new ArrayCompiledFrameSequence(frames);
+    }
+
+    private static KeyframeWarmupReport report(final List<CompletableFuture<CompiledFrameSequence>> futures,
+                                               final long elapsedNanos) {
+        int animations = 0;
+        long frames = 0;
+        for (final CompletableFuture<CompiledFrameSequence> future : futures) {
+            final CompiledFrameSequence result = KeyframeWorkers.resultNow(future);
+            if (result != null) {
+                animations++;
+                frames += KeyframeCompiler.preparedFrames(result);
+            }
+        }
+
+        final KeyframeWarmupReport report = new KeyframeWarmupReport(Duration.ofNanos(elapsedNanos), animations, frames,
+                futures.size() - animations);
+        KeyframeLogger.logInfo("> Warmed up " + animations + " animations (" + frames + " frames) in "
+                + report.duration().toMillis() + " ms");
+        return report;
+    }
+
+    /**
+     * Identifies the frames of one animation for one kind of dispatch.
+     */
+    private record WarmupKey(Object source, int cycles, Duration tickDelay) {
+    }
+
+    private record Registration(WarmupKey key, Supplier<FrameSequence> sequence) {
+    }
+
+    /**
+     * One running warm-up: its pool and the futures of its animations.
+     */
+    private record Run(ForkJoinPool pool, List<CompletableFuture<CompiledFrameSequence>> futures) {
+
+        /**
+         * Cancels the animations that are still compiling, which completes the warm-up, and stops the pool.
+         */
+        void cancel() {
+            futures.forEach(future -> future.cancel(false));
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Compiles a range of frames, splitting it in halves that are compiled in parallel while it is long.
+     * Equal keyframes of the sequence share the instance compiled first.
+     */
+    private static final class CompileRange extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FrameSequence sequence;
+        private final Title.Times times;
+        private final Map<Keyframe, CompiledKeyframe> compiledByKeyframe;
+        private final CompiledKeyframe[] frames;
+        private final int from;
+        private final int to;
+
+        private CompileRange(final FrameSequence sequence, final Title.Times times,
+                             final Map<Keyframe, CompiledKeyframe> compiledByKeyframe,
+                             final CompiledKeyframe[] frames, final int from, final int to) {
+            this.sequence = sequence;
+            this.times = times;
+            this.compiledByKeyframe = compiledByKeyframe;
+            this.frames = frames;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new CompileRange(sequence, times, compiledByKeyframe, frames, from, middle),
+                        new CompileRange(sequence, times, compiledByKeyframe, frames, middle, to));
+                return;
+            }
+
+            if (!KeyframeCompiler.mayRepeatFrames(sequence)) {
+                for (int index = from; index < to; index++) {
+                    frames[index] = KeyframeCompiler.compile(sequence, index, times);
+                }
+
+                return;
+            }
+
+            for (int index = from; index < to; index++) {
+                final Keyframe keyframe = sequence.frame(index);
+                final CompiledKeyframe existing = compiledByKeyframe.get(keyframe);
+                if (existing != null) {
+                    frames[index] = existing;
+                    continue;
+                }
+
+                final CompiledKeyframe compiledFrame = KeyframeCompiler.compile(sequence, index, times);
+                final CompiledKeyframe raced = compiledByKeyframe.putIfAbsent(keyframe, compiledFrame);
+                frames[index] = raced != null ? raced : compiledFrame;
+            }
+        }
+    }
+}
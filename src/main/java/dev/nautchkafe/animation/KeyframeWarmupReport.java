@@ -0,0 +1,14 @@
+package dev.nautchkafe.animation;
+
+import java.time.Duration;
+
+/**
+ * The result of one {@link KeyframeWarmup} run.
+ *
+ * @param duration the time from starting the warm-up until every animation was compiled or failed.
+ * @param animations the number of animations compiled.
+ * @param frames the number of frames compiled across all animations.
+ * @param failed the number of animations that could not be compiled and are compiled on dispatch instead.
+ */
+public record KeyframeWarmupReport(Duration duration, int animations, long frames, int failed) {
+}
@@ -0,0 +1,73 @@
+package dev.nautchkafe.animation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The bounded pool of background workers that build frame components ahead of playback.
+ *
+ * <p>Workers are daemon threads that time out when idle, so an unused pool costs nothing and never
+ * keeps the server from stopping. The work queue is bounded; work that does not fit is rejected instead
+ * of piling up, and callers fall back to building the frame when it is needed.</p>
+ */
+final class KeyframeWorkers {
+
+    private static final int POOL_SIZE = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    private KeyframeWorkers() {
+    }
+
+    /**
+     * Runs the given work on a background worker.
+     *
+     * @param <RESULT> the result type of the work.
+     * @param work the work to run.
+     * @return a future completed with the result, or failed if the work threw or the pool was saturated.
+     */
+    static <RESULT> CompletableFuture<RESULT> supply(final Supplier<RESULT> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, EXECUTOR);
+        } catch (final RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Returns the result of a finished future without waiting.
+     *
+     * @param <RESULT> the result type.
+     * @param future the future to read.
+     * @return the result, or null if the future is still running or failed.
+     */
+    static <RESULT> RESULT resultNow(final CompletableFuture<RESULT> future) {
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+
+        return future.join();
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "keyframe-builder-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A {@link CompiledFrameSequence} that plays another sequence several times, or forever, by reading
+ * its frames again instead of copying them.
+ */
+final class LoopedCompiledFrameSequence implements CompiledFrameSequence {
+
+    private final CompiledFrameSequence keyframes;
+    private final int size;
+
+    /**
+     * @param keyframes the sequence to loop, which must not be empty.
+     * @param size the total length of all passes, or {@link FrameSequence#UNBOUNDED} to loop forever.
+     */
+    LoopedCompiledFrameSequence(final CompiledFrameSequence keyframes, final int size) {
+        this.keyframes = keyframes;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CompiledFrameSequence forPlayback() {
+        final CompiledFrameSequence played = keyframes.forPlayback();
+        return played == keyframes ? this : new LoopedCompiledFrameSequence(played, size);
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        return keyframes.frame(index % keyframes.size());
+    }
+}
@@ -0,0 +1,42 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.title.Title;
+import net.kyori.adventure.title.TitlePart;
+
+import java.time.Duration;
+
+/**
+ * The MiniMessage based {@link KeyframeRenderer}, which shows the pre-built title of compiled keyframes
+ * and compiles raw keyframes through the shared {@link KeyframeCompiler} cache.
+ *
+ * <p>Every title stays for one frame. A frame held by a paused animation stays until the animation resumes, so
+ * it is faded out if the animation ends while paused.</p>
+ */
+final class MiniMessageKeyframeRenderer implements KeyframeRenderer {
+
+    static final MiniMessageKeyframeRenderer INSTANCE = new MiniMessageKeyframeRenderer();
+
+    private static final Title.Times END_TIMES = Title.Times.times(Duration.ZERO, Duration.ZERO, KeyframeCompiler.FADE_OUT);
+
+    private MiniMessageKeyframeRenderer() {
+    }
+
+    @Override
+    public void render(final Audience audience, final Keyframe keyframe, final Duration tickDelay) {
+        render(audience, KeyframeCompiler.compile(keyframe, tickDelay));
+    }
+
+    @Override
+    public void render(final Audience audience, final CompiledKeyframe keyframe) {
+        audience.showTitle(keyframe.asTitle());
+    }
+
+    @Override
+    public void renderEnd(final Audience audience, final CompiledKeyframe last) {
+        if (last.isHeld()) {
+            audience.sendTitlePart(TitlePart.TIMES, END_TIMES);
+            audience.sendTitlePart(TitlePart.TITLE, last.title());
+        }
+    }
+}
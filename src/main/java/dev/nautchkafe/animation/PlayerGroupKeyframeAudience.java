@@ -0,0 +1,109 @@
+package dev.nautchkafe.animation;
+
+import org.bukkit.entity.Player;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A {@link KeyframeAudience} of many players sharing one timeline. Offline members are dropped
+ * while rendering on the main thread, without affecting the remaining members; whether any member
+ * remains is remembered for the engine thread. Members are held weakly, so a long broadcast never keeps
+ * players who quit in memory. Members are visited through non-capturing actions, so rendering a frame allocates nothing.
+ */
+final class PlayerGroupKeyframeAudience implements KeyframeAudience {
+
+    private final List<WeakReference<Player>> members;
+    private volatile boolean active;
+
+    PlayerGroupKeyframeAudience(final Collection<? extends Player> players) {
+        this.members = new ArrayList<>(players.size());
+        players.forEach(player -> members.add(new WeakReference<>(player)));
+        this.active = !members.isEmpty();
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public int size() {
+        return members.size();
+    }
+
+    @Override
+    public void render(final KeyframeRenderer renderer, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        forEachOnlineMember(PlayerGroupKeyframeAudience::renderMember, "rendering keyframe", renderer, previous, keyframe);
+    }
+
+    @Override
+    public void finish(final KeyframeRenderer renderer, final CompiledKeyframe last) {
+        forEachOnlineMember(PlayerGroupKeyframeAudience::finishMember, "finishing keyframe animation", renderer, null, last);
+    }
+
+    /**
+     * Applies an action to every online member, dropping the members who went offline or were collected.
+     *
+     * @param action the action to apply.
+     * @param failure what the action does, as logged when it fails for a member.
+     * @param renderer the renderer used to show the frames.
+     * @param previous the frame rendered before, if any.
+     * @param keyframe the frame the action is applied with.
+     */
+    private void forEachOnlineMember(final MemberAction action, final String failure, final KeyframeRenderer renderer,
+                                     final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        int index = 0;
+        while (index < members.size()) {
+            final Player member = members.get(index).get();
+
+            if (member == null || !member.isOnline()) {
+                removeAt(index);
+                continue;
+            }
+
+            try {
+                action.apply(member, renderer, previous, keyframe);
+            } catch (final RuntimeException e) {
+                KeyframeLogger.logInfo("> Error " + failure + " for " + member.getName() + ": " + e.getMessage());
+            }
+
+            index++;
+        }
+
+        active = !members.isEmpty();
+    }
+
+    private static void renderMember(final Player member, final KeyframeRenderer renderer,
+                                     final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        KeyframeAudience.renderTo(member, renderer, previous, keyframe);
+    }
+
+    private static void finishMember(final Player member, final KeyframeRenderer renderer,
+                                     final CompiledKeyframe previous, final CompiledKeyframe last) {
+        renderer.renderEnd(member, last);
+    }
+
+    /**
+     * Removes the member at the given index in constant time by swapping the last member into its slot.
+     *
+     * @param index the index of the member to remove.
+     */
+    private void removeAt(final int index) {
+        final int lastIndex = members.size() - 1;
+        members.set(index, members.get(lastIndex));
+        members.remove(lastIndex);
+    }
+
+    /**
+     * An action applied to one member with the frame being sent.
+     */
+    @FunctionalInterface
+    private interface MemberAction {
+
+        void apply(final Player member, final KeyframeRenderer renderer,
+                   final CompiledKeyframe previous, final CompiledKeyframe keyframe);
+    }
+}
@@ -0,0 +1,73 @@
+package dev.nautchkafe.animation;
+
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import org.bukkit.entity.Player;
+
+import java.lang.ref.WeakReference;
+import java.util.UUID;
+
+/**
+ * A {@link KeyframeAudience} of a single player. The player is held weakly, so a finished or forgotten animation
+ * never keeps a player who quit in memory. Whether the player is online is checked once on the main thread,
+ * when the first frame is sent, in case the player left before the animation started; after that the engine
+ * learns about a quit from the event and retires the animation, so no frame polls the player.
+ */
+final class PlayerKeyframeAudience implements KeyframeAudience {
+
+    private final UUID playerId;
+    private final WeakReference<Player> player;
+    private volatile boolean online;
+
+    PlayerKeyframeAudience(final Player player) {
+        this.playerId = player.getUniqueId();
+        this.player = new WeakReference<>(player);
+        this.online = true;
+    }
+
+    @Override
+    public boolean isActive() {
+        return online && player.get() != null;
+    }
+
+    @Override
+    public void render(final KeyframeRenderer renderer, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        final Player member = player.get();
+        if (member == null || (previous == null && !isOnline(member))) {
+            return;
+        }
+
+        try {
+            KeyframeAudience.renderTo(member, renderer, previous, keyframe);
+        } catch (final RuntimeException e) {
+            KeyframeLogger.logInfo("> Error rendering keyframe: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void finish(final KeyframeRenderer renderer, final CompiledKeyframe last) {
+        final Player member = player.get();
+        if (member == null || !online) {
+            return;
+        }
+
+        Try.run(() -> renderer.renderEnd(member, last))
+                .onFailure(e -> KeyframeLogger.logInfo("> Error finishing keyframe animation: " + e.getMessage()));
+    }
+
+    /**
+     * Checks on the main thread whether the player is still online and remembers the result.
+     *
+     * @param member the player.
+     * @return true if the player is online.
+     */
+    private boolean isOnline(final Player member) {
+        online = member.isOnline();
+        return online;
+    }
+
+    @Override
+    public Option<UUID> owner() {
+        return Option.some(playerId);
+    }
+}
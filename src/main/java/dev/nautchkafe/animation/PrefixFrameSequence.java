@@ -0,0 +1,52 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+
+/**
+ * A streaming {@link FrameSequence} whose frames fill the slot of a {@link KeyframeTemplate} with growing prefixes
+ * of one text, such as a growing bar or a typewriter.
+ *
+ * <p>Frames are compiled from the shared nodes of {@link ComponentPrefixes}, so compiling all frames costs time
+ * linear in the length of the text, and the MiniMessage source of a frame is only built if it is asked for.</p>
+ */
+final class PrefixFrameSequence implements FrameSequence {
+
+    private final KeyframeTemplate template;
+    private final ComponentPrefixes prefixes;
+    private final int[] lengths;
+
+    PrefixFrameSequence(final KeyframeTemplate template, final ComponentPrefixes prefixes, final int[] lengths) {
+        this.template = template;
+        this.prefixes = prefixes;
+        this.lengths = lengths;
+    }
+
+    @Override
+    public int size() {
+        return lengths.length;
+    }
+
+    @Override
+    public Keyframe frame(final int index) {
+        return template.keyframe(prefixes.text().substring(0, lengths[index]));
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Compiles the frame of the given index by filling the pre-parsed template with a shared prefix, without
+     * building its MiniMessage source.
+     *
+     * @param index the frame index.
+     * @param times the fade and stay times of the title.
+     * @return the compiled keyframe.
+     */
+    CompiledKeyframe compile(final int index, final Title.Times times) {
+        final Component prefix = prefixes.prefix(lengths[index]);
+        return template.compile(times, prefix, prefixes.estimatedBytes(lengths[index]), () -> frame(index));
+    }
+}
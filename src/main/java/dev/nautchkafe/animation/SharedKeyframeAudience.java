@@ -0,0 +1,205 @@
+package dev.nautchkafe.animation;
+
+import org.bukkit.entity.Player;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The {@link KeyframeAudience} of one track of a shared timeline. It follows the members of a
+ * {@link KeyframeSharedAudience} and remembers, per member, whether the member has seen a frame of this track.
+ *
+ * <p>Members are compared with the shared audience on the main thread, only after the audience changed. A member
+ * who joined is sent the current frame in full, either with the next frame or, when the task is asked to catch
+ * up between frames, right away; members who were there before get the usual transition. A member who left has
+ * the track closed for them. Between changes, rendering a frame allocates nothing.</p>
+ */
+final class SharedKeyframeAudience implements KeyframeAudience {
+
+    private final KeyframeSharedAudience audience;
+    private final List<Member> members;
+    private final Map<UUID, Member> membersById;
+    private long seenVersion;
+    private volatile Runnable listener;
+
+    SharedKeyframeAudience(final KeyframeSharedAudience audience) {
+        this.audience = audience;
+        this.members = new ArrayList<>();
+        this.membersById = new HashMap<>();
+        this.seenVersion = -1;
+    }
+
+    @Override
+    public boolean isActive() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return members.size();
+    }
+
+    @Override
+    public void render(final KeyframeRenderer renderer, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        reconcile(renderer, previous);
+
+        int index = 0;
+        while (index < members.size()) {
+            final Member member = members.get(index);
+            final Player player = member.player.get();
+
+            if (player == null || !player.isOnline()) {
+                drop(index);
+                continue;
+            }
+
+            try {
+                KeyframeAudience.renderTo(player, renderer, member.synced ? previous : null, keyframe);
+            } catch (final RuntimeException e) {
+                KeyframeLogger.logInfo("> Error rendering keyframe for " + player.getName() + ": " + e.getMessage());
+            }
+
+            member.synced = true;
+            index++;
+        }
+    }
+
+    @Override
+    public void sync(final KeyframeRenderer renderer, final CompiledKeyframe current) {
+        reconcile(renderer, current);
+
+        for (final Member member : members) {
+            final Player player = member.player.get();
+            if (member.synced || player == null || !player.isOnline()) {
+                continue;
+            }
+
+            try {
+                renderer.render(player, current);
+            } catch (final RuntimeException e) {
+                KeyframeLogger.logInfo("> Error rendering keyframe for " + player.getName() + ": " + e.getMessage());
+            }
+
+            member.synced = true;
+        }
+    }
+
+    @Override
+    public void finish(final KeyframeRenderer renderer, final CompiledKeyframe last) {
+        reconcile(renderer, last);
+        members.forEach(member -> finishMember(member, renderer, last));
+    }
+
+    @Override
+    public void attach(final Runnable listener) {
+        this.listener = listener;
+        audience.addListener(listener);
+    }
+
+    @Override
+    public void detach() {
+        if (listener != null) {
+            audience.removeListener(listener);
+        }
+    }
+
+    /**
+     * Brings the members of this track in line with the shared audience if it changed since the last call.
+     * Members who left have the track closed for them; members who joined are added as not yet synced.
+     *
+     * @param renderer the renderer used to show the frames.
+     * @param current the frame shown last, or null if nothing was shown yet.
+     */
+    private void reconcile(final KeyframeRenderer renderer, final CompiledKeyframe current) {
+        final long version = audience.version();
+        if (version == seenVersion) {
+            return;
+        }
+
+        seenVersion = version;
+
+        int index = 0;
+        while (index < members.size()) {
+            final Member member = members.get(index);
+            if (audience.holds(member.id, member.player)) {
+                index++;
+                continue;
+            }
+
+            removeAt(index);
+            if (current != null) {
+                finishMember(member, renderer, current);
+            }
+        }
+
+        audience.members().forEach((id, player) -> {
+            if (!membersById.containsKey(id)) {
+                final Member member = new Member(id, player);
+                members.add(member);
+                membersById.put(id, member);
+            }
+        });
+    }
+
+    /**
+     * Closes the track for one member who has seen a frame of it and is still online.
+     *
+     * @param member the member.
+     * @param renderer the renderer used to show the frames.
+     * @param last the frame shown last.
+     */
+    private static void finishMember(final Member member, final KeyframeRenderer renderer, final CompiledKeyframe last) {
+        final Player player = member.player.get();
+        if (!member.synced || player == null || !player.isOnline()) {
+            return;
+        }
+
+        try {
+            renderer.renderEnd(player, last);
+        } catch (final RuntimeException e) {
+            KeyframeLogger.logInfo("> Error finishing keyframe animation for " + player.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops a member who went offline or was collected, from this track and from the shared audience.
+     *
+     * @param index the index of the member.
+     */
+    private void drop(final int index) {
+        final Member member = members.get(index);
+        removeAt(index);
+        audience.forget(member.id, member.player);
+    }
+
+    /**
+     * Removes the member at the given index in constant time by swapping the last member into its slot.
+     *
+     * @param index the index of the member to remove.
+     */
+    private void removeAt(final int index) {
+        final int lastIndex = members.size() - 1;
+        membersById.remove(members.get(index).id);
+        members.set(index, members.get(lastIndex));
+        members.remove(lastIndex);
+    }
+
+    /**
+     * A member of the track and whether it has seen a frame of it.
+     */
+    private static final class Member {
+
+        private final UUID id;
+        private final WeakReference<Player> player;
+        private boolean synced;
+
+        private Member(final UUID id, final WeakReference<Player> player) {
+            this.id = id;
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.title.Title;
+
+import java.nio.IntBuffer;
+import java.util.BitSet;
+
+/**
+ * A {@link FrameSequence} whose frames are packed as dictionary ids in a {@link KeyframeStore}.
+ * Keyframes are created as views on every read, and compiled from the components cached in the dictionary.
+ */
+final class StoredFrameSequence implements FrameSequence {
+
+    private final KeyframeStore store;
+    private final String animationId;
+    private final IntBuffer frameIds;
+    private final int size;
+
+    StoredFrameSequence(final KeyframeStore store, final String animationId, final IntBuffer frameIds, final int size) {
+        this.store = store;
+        this.animationId = animationId;
+        this.frameIds = frameIds;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Keyframe frame(final int index) {
+        return new Keyframe(store.string(titleId(index)), store.string(subtitleId(index)));
+    }
+
+    /**
+     * Streams the frames, so only the look-ahead batch of compiled frames is held while the animation plays.
+     *
+     * @return always true.
+     */
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Compiles the frame of the given index from the parsed components cached in the dictionary.
+     *
+     * @param index the frame index.
+     * @param times the fade and stay times of the title.
+     * @return the compiled keyframe.
+     */
+    CompiledKeyframe compile(final int index, final Title.Times times) {
+        final int titleId = titleId(index);
+        final int subtitleId = subtitleId(index);
+
+        return CompiledKeyframe.of(new Keyframe(store.string(titleId), store.string(subtitleId)),
+                store.component(titleId), store.component(subtitleId), times);
+    }
+
+    /**
+     * Parses the components of every dictionary string used by this sequence ahead of playback.
+     */
+    void parseComponents() {
+        for (final int id : distinctIds()) {
+            store.component(id);
+        }
+    }
+
+    /**
+     * Returns the dictionary ids used by the frames of this sequence.
+     *
+     * @return each used id once, in ascending order.
+     */
+    int[] distinctIds() {
+        final BitSet ids = new BitSet();
+        for (int index = 0; index < size * 2; index++) {
+            ids.set(frameIds.get(index));
+        }
+
+        return ids.stream().toArray();
+    }
+
+    private int titleId(final int index) {
+        return frameIds.get(index * 2);
+    }
+
+    private int subtitleId(final int index) {
+        return frameIds.get(index * 2 + 1);
+    }
+
+    @Override
+    public String toString() {
+        return "StoredFrameSequence{" +
+                "animationId='" + animationId + '\'' +
+                ", size=" + size +
+                '}';
+    }
+}
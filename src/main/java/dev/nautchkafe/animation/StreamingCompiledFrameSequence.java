@@ -0,0 +1,138 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.title.Title;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link CompiledFrameSequence} that compiles frames of a streaming source on demand.
+ *
+ * <p>Compiled frames are kept in batches of the look-ahead size. While a batch plays, the following
+ * batch is compiled on a background worker and swapped in once playback reaches it. If the worker has
+ * not finished by then, the batch is compiled in place, so playback never waits. Memory stays constant
+ * no matter how long, or unbounded, the source is. The first batch can be compiled ahead, such as by the
+ * {@link KeyframeWarmup}; it is then shared by every playback, including loops back to the start.</p>
+ *
+ * <p>This class is not thread-safe and is meant to be read from the engine thread. It keeps one batch cursor,
+ * so every task plays its own {@link #forPlayback()} view over the shared source.</p>
+ */
+final class StreamingCompiledFrameSequence implements CompiledFrameSequence {
+
+    private static final CompiledKeyframe[] NO_FRAMES = new CompiledKeyframe[0];
+
+    private final FrameSequence source;
+    private final Title.Times times;
+    private final int lookAhead;
+    private final CompiledKeyframe[] firstBatch;
+    private CompiledKeyframe[] batch;
+    private int batchStart;
+    private CompletableFuture<CompiledKeyframe[]> nextBatch;
+    private int nextBatchStart;
+
+    StreamingCompiledFrameSequence(final FrameSequence source, final Title.Times times, final int lookAhead) {
+        this(source, times, lookAhead, NO_FRAMES);
+    }
+
+    private StreamingCompiledFrameSequence(final FrameSequence source, final Title.Times times, final int lookAhead,
+                                           final CompiledKeyframe[] firstBatch) {
+        this.source = source;
+        this.times = times;
+        this.lookAhead = lookAhead;
+        this.firstBatch = firstBatch;
+        this.batch = firstBatch;
+    }
+
+    /**
+     * Compiles the first batch of this sequence, so every playback shows its first frames without compiling them.
+     *
+     * @return a new sequence over the same source, holding its first batch.
+     */
+    StreamingCompiledFrameSequence withFirstBatch() {
+        return new StreamingCompiledFrameSequence(source, times, lookAhead, compileBatch(0));
+    }
+
+    /**
+     * Returns how many frames are compiled ahead of any playback.
+     *
+     * @return the length of the first batch, or zero if it is not compiled ahead.
+     */
+    int preparedFrames() {
+        return firstBatch.length;
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    @Override
+    public CompiledFrameSequence forPlayback() {
+        return new StreamingCompiledFrameSequence(source, times, lookAhead, firstBatch);
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        if (index < batchStart || index - batchStart >= batch.length) {
+            loadBatch(index);
+        }
+
+        if (nextBatch == null) {
+            prefetchNextBatch();
+        }
+
+        return batch[index - batchStart];
+    }
+
+    /**
+     * Makes a batch holding the given frame current, taking it from the background worker when it is ready.
+     *
+     * @param index the frame the batch must hold.
+     */
+    private void loadBatch(final int index) {
+        final CompiledKeyframe[] prefetched = nextBatch == null ? null : KeyframeWorkers.resultNow(nextBatch);
+
+        if (prefetched != null && index >= nextBatchStart && index - nextBatchStart < prefetched.length) {
+            batch = prefetched;
+            batchStart = nextBatchStart;
+        } else if (index < firstBatch.length) {
+            batch = firstBatch;
+            batchStart = 0;
+        } else {
+            batch = compileBatch(index);
+            batchStart = index;
+        }
+
+        nextBatch = null;
+    }
+
+    /**
+     * Starts compiling the batch following the current one on a background worker.
+     */
+    private void prefetchNextBatch() {
+        final long start = (long) batchStart + batch.length;
+        if (start >= source.size()) {
+            return;
+        }
+
+        final int prefetchStart = (int) start;
+        nextBatchStart = prefetchStart;
+        nextBatch = KeyframeWorkers.supply(() -> compileBatch(prefetchStart));
+    }
+
+    /**
+     * Compiles the given frame and the following frames of the look-ahead window.
+     *
+     * @param index the first frame to compile.
+     * @return the compiled frames.
+     */
+    private CompiledKeyframe[] compileBatch(final int index) {
+        final int end = (int) Math.min((long) index + lookAhead, source.size());
+        final CompiledKeyframe[] frames = new CompiledKeyframe[end - index];
+
+        for (int frameIndex = index; frameIndex < end; frameIndex++) {
+            frames[frameIndex - index] = KeyframeCompiler.compile(source, frameIndex, times);
+        }
+
+        return frames;
+    }
+}
@@ -0,0 +1,51 @@
+package dev.nautchkafe.animation;
+
+import java.util.function.IntFunction;
+
+/**
+ * A {@link FrameSequence} that produces each frame on demand from its index instead of holding them in memory.
+ */
+final class StreamingFrameSequence implements FrameSequence {
+
+    private final int size;
+    private final IntFunction<Keyframe> generator;
+    private final int lookAhead;
+
+    StreamingFrameSequence(final int size, final IntFunction<Keyframe> generator, final int lookAhead) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Frame count must not be negative: " + size);
+        }
+
+        if (lookAhead < 1) {
+            throw new IllegalArgumentException("Look-ahead must be at least one frame: " + lookAhead);
+        }
+
+        this.size = size;
+        this.generator = generator;
+        this.lookAhead = lookAhead;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Keyframe frame(final int index) {
+        return generator.apply(index);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Returns how many frames are compiled ahead of the playback cursor in one batch.
+     *
+     * @return the look-ahead in frames.
+     */
+    int lookAhead() {
+        return lookAhead;
+    }
+}
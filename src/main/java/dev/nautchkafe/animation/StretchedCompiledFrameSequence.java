@@ -0,0 +1,38 @@
+package dev.nautchkafe.animation;
+
+/**
+ * A {@link CompiledFrameSequence} that plays another sequence at a lower frame rate, by following each
+ * of its frames with gaps. Used to play a slower part of a timeline on the shorter tick of the whole timeline.
+ */
+final class StretchedCompiledFrameSequence implements CompiledFrameSequence {
+
+    private final CompiledFrameSequence keyframes;
+    private final int ticksPerFrame;
+    private final int size;
+
+    /**
+     * @param keyframes the sequence to stretch.
+     * @param ticksPerFrame how many timeline ticks each frame of the sequence lasts.
+     */
+    StretchedCompiledFrameSequence(final CompiledFrameSequence keyframes, final int ticksPerFrame) {
+        this.keyframes = keyframes;
+        this.ticksPerFrame = ticksPerFrame;
+        this.size = KeyframeTimeline.saturatedSize((long) keyframes.size() * ticksPerFrame);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public CompiledFrameSequence forPlayback() {
+        final CompiledFrameSequence played = keyframes.forPlayback();
+        return played == keyframes ? this : new StretchedCompiledFrameSequence(played, ticksPerFrame);
+    }
+
+    @Override
+    public CompiledKeyframe frame(final int index) {
+        return index % ticksPerFrame == 0 ? keyframes.frame(index / ticksPerFrame) : null;
+    }
+}
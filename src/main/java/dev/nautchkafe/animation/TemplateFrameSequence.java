@@ -0,0 +1,63 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.title.Title;
+
+import java.util.function.IntFunction;
+
+/**
+ * A streaming {@link FrameSequence} whose frames fill a {@link KeyframeTemplate} with the values of their index.
+ */
+final class TemplateFrameSequence implements FrameSequence {
+
+    private final KeyframeTemplate template;
+    private final int size;
+    private final IntFunction<String[]> values;
+    private final int lookAhead;
+
+    TemplateFrameSequence(final KeyframeTemplate template, final int size, final IntFunction<String[]> values,
+                          final int lookAhead) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Frame count must not be negative: " + size);
+        }
+
+        this.template = template;
+        this.size = size;
+        this.values = values;
+        this.lookAhead = lookAhead;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Keyframe frame(final int index) {
+        return template.keyframe(values.apply(index));
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return true;
+    }
+
+    /**
+     * Compiles the frame of the given index by filling the pre-parsed template, without parsing.
+     *
+     * @param index the frame index.
+     * @param times the fade and stay times of the title.
+     * @return the compiled keyframe.
+     */
+    CompiledKeyframe compile(final int index, final Title.Times times) {
+        return template.compile(times, values.apply(index));
+    }
+
+    /**
+     * Returns how many frames are compiled ahead of the playback cursor in one batch.
+     *
+     * @return the look-ahead in frames.
+     */
+    int lookAhead() {
+        return lookAhead;
+    }
+}
@@ -0,0 +1,83 @@
+package dev.nautchkafe.animation;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.title.Title;
+import net.kyori.adventure.title.TitlePart;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A {@link KeyframeRenderer} that keeps one title on screen for the whole timeline and updates it in place.
+ *
+ * <p>The first frame is shown in full with a stay time long enough to outlast the animation. Later frames send
+ * only the subtitle or title part that changed, and identical frames send nothing. Since a new title text
+ * restarts the client's fade-in, a title change is preceded by times without fade-in. After the last frame
+ * the title is faded out.</p>
+ */
+final class TitleSessionKeyframeRenderer implements KeyframeRenderer {
+
+    static final TitleSessionKeyframeRenderer INSTANCE = new TitleSessionKeyframeRenderer();
+
+    private static final Duration SESSION_STAY = Duration.ofHours(1);
+    private static final Title.Times SESSION_TIMES = Title.Times.times(KeyframeCompiler.FADE_IN, SESSION_STAY, KeyframeCompiler.FADE_OUT);
+    private static final Title.Times UPDATE_TIMES = Title.Times.times(Duration.ZERO, SESSION_STAY, KeyframeCompiler.FADE_OUT);
+    private static final Title.Times END_TIMES = Title.Times.times(Duration.ZERO, Duration.ZERO, KeyframeCompiler.FADE_OUT);
+
+    private TitleSessionKeyframeRenderer() {
+    }
+
+    @Override
+    public void render(final Audience audience, final Keyframe keyframe, final Duration tickDelay) {
+        render(audience, KeyframeCompiler.compile(keyframe, tickDelay));
+    }
+
+    @Override
+    public void render(final Audience audience, final CompiledKeyframe keyframe) {
+        audience.showTitle(Title.title(keyframe.title(), keyframe.subtitle(), SESSION_TIMES));
+    }
+
+    @Override
+    public void renderTransition(final Audience audience, final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous == keyframe) {
+            return;
+        }
+
+        if (!Objects.equals(previous.subtitle(), keyframe.subtitle())) {
+            audience.sendTitlePart(TitlePart.SUBTITLE, keyframe.subtitle());
+        }
+
+        if (!Objects.equals(previous.title(), keyframe.title())) {
+            audience.sendTitlePart(TitlePart.TIMES, UPDATE_TIMES);
+            audience.sendTitlePart(TitlePart.TITLE, keyframe.title());
+        }
+    }
+
+    @Override
+    public int estimatedPackets(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous == null) {
+            return 3;
+        }
+
+        final int subtitle = Objects.equals(previous.subtitle(), keyframe.subtitle()) ? 0 : 1;
+        final int title = Objects.equals(previous.title(), keyframe.title()) ? 0 : 2;
+        return subtitle + title;
+    }
+
+    @Override
+    public int estimatedBytes(final CompiledKeyframe previous, final CompiledKeyframe keyframe) {
+        if (previous == null) {
+            return keyframe.estimatedTitleBytes() + keyframe.estimatedSubtitleBytes();
+        }
+
+        final int subtitle = Objects.equals(previous.subtitle(), keyframe.subtitle()) ? 0 : keyframe.estimatedSubtitleBytes();
+        final int title = Objects.equals(previous.title(), keyframe.title()) ? 0 : keyframe.estimatedTitleBytes();
+        return subtitle + title;
+    }
+
+    @Override
+    public void renderEnd(final Audience audience, final CompiledKeyframe last) {
+        audience.sendTitlePart(TitlePart.TIMES, END_TIMES);
+        audience.sendTitlePart(TitlePart.TITLE, last.title());
+    }
+}
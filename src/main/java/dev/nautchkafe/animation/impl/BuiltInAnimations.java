@@ -0,0 +1,43 @@
+package dev.nautchkafe.animation.impl;
+
+import dev.nautchkafe.animation.KeyframeAnimationMessageConfig;
+import dev.nautchkafe.animation.KeyframeAnimationPlugin;
+import dev.nautchkafe.animation.KeyframeMapper;
+import dev.nautchkafe.animation.KeyframeWarmup;
+
+import java.time.Duration;
+
+/**
+ * BuiltInAnimations registers the animations shipped in this package with a {@link KeyframeWarmup}, so they
+ * can be compiled at enable time.
+ */
+public final class BuiltInAnimations {
+
+    private BuiltInAnimations() {
+    }
+
+    /**
+     * Registers every built-in animation of a message configuration for the dispatches made by their
+     * {@code display} method, which play as many cycles as the configuration has frames. Since animations built
+     * from equal configurations are equal, instances created later for a dispatch use the warmed-up frames.
+     *
+     * @param warmup the warm-up of the engine, such as {@code KeyframeAnimationEngine.of(plugin).warmup()}.
+     * @param config the message configuration the animations are built from.
+     * @param plugin the plugin dispatching the animations.
+     * @param mapper the mapper caching the frames of the spinning slash animation.
+     * @param tickDelay the delay between frames the animations are displayed with.
+     * @return the warm-up, for chaining.
+     */
+    public static KeyframeWarmup register(final KeyframeWarmup warmup, final KeyframeAnimationMessageConfig config,
+                                          final KeyframeAnimationPlugin plugin, final KeyframeMapper mapper,
+                                          final Duration tickDelay) {
+        final int cycles = config.numberOfFrames();
+
+        return warmup
+                .animation(new CountdownAnimation(config, plugin), cycles, tickDelay)
+                .animation(new LoadingProgressAnimation(config, plugin), cycles, tickDelay)
+                .animation(new SpinningSlashAnimation(config, plugin, mapper), cycles, tickDelay)
+                .animation(new WobbleTextAnimation(config, plugin), cycles, tickDelay)
+                .animation(new CustomCharacterAnimation(config, plugin), cycles, tickDelay);
+    }
+}
@@ -1,17 +1,21 @@
 package dev.nautchkafe.animation.impl;
 
+import dev.nautchkafe.animation.FrameSequence;
 import dev.nautchkafe.animation.Keyframe;
 import dev.nautchkafe.animation.KeyframeAnimation;
 import dev.nautchkafe.animation.KeyframeAnimationDispatcher;
 import dev.nautchkafe.animation.KeyframeAnimationMessageConfig;
 import dev.nautchkafe.animation.KeyframeAnimationPlugin;
 import dev.nautchkafe.animation.KeyframeLogger;
+import dev.nautchkafe.animation.KeyframePriority;
 import dev.nautchkafe.animation.KeyframeRenderer;
+import dev.nautchkafe.animation.KeyframeTemplate;
 import io.vavr.collection.List;
 import io.vavr.control.Try;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -20,13 +24,19 @@ import java.util.function.Supplier;
  */
 public final class CountdownAnimation implements KeyframeAnimation {
 
+    private static final String ANIMATION_ID = "countdown";
+    private static final String COUNT_SLOT = "count";
+
     private final KeyframeAnimationMessageConfig messageConfig;
     private final KeyframeAnimationPlugin plugin;
+    private final KeyframeTemplate template;
 
     public CountdownAnimation(final KeyframeAnimationMessageConfig messageConfig,
                               final KeyframeAnimationPlugin plugin) {
         this.messageConfig = messageConfig;
         this.plugin = plugin;
+        this.template = KeyframeTemplate.of(messageConfig.titleMessage(),
+                messageConfig.subtitleMessage() + " <" + COUNT_SLOT + ">", COUNT_SLOT);
     }
 
     /**
@@ -38,12 +48,20 @@ public final class CountdownAnimation implements KeyframeAnimation {
      */
     @Override
     public Supplier<List<Keyframe>> frames(final int cycles) {
-        return () -> List.rangeClosed(0, cycles)
-                .reverse()
-                .map(i -> new Keyframe(
-                        messageConfig.titleMessage(),
-                        messageConfig.subtitleMessage() + " " + i
-                ));
+        return () -> sequence(cycles).toList();
+    }
+
+    /**
+     * Streams the countdown keyframes from the given number of cycles down to 0, generating
+     * each frame only when it is played so long countdowns cost no memory up front. Frames only
+     * fill the count into the template parsed once, so no frame is parsed on its own.
+     *
+     * @param cycles the number of cycles to countdown from
+     * @return a streaming sequence of keyframes for the countdown
+     */
+    @Override
+    public FrameSequence sequence(final int cycles) {
+        return template.sequence(cycles + 1, i -> new String[]{String.valueOf(cycles - i)});
     }
 
     /**
@@ -56,8 +74,9 @@ public final class CountdownAnimation implements KeyframeAnimation {
      */
     private void displayAnimation(Player player, Duration tickDelay, KeyframeRenderer renderer, int cycles) {
         Try.run(() -> {
-            final List<Keyframe> keyframes = frames(cycles).get();
-            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, keyframes, renderer, tickDelay, plugin);
+            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, this, cycles, renderer, tickDelay, plugin)
+                    .named(ANIMATION_ID)
+                    .priority(KeyframePriority.CRITICAL);
 
             dispatcher.dispatch();
         }).onFailure(e -> KeyframeLogger.logInfo("> Error in Custom Character Animation: " + e.getMessage()));
@@ -73,4 +92,22 @@ public final class CountdownAnimation implements KeyframeAnimation {
     public void display(final Player player, final Duration tickDelay) {
         displayAnimation(player, tickDelay, KeyframeRenderer.miniMessageRenderer(), messageConfig.numberOfFrames());
     }
-}
\ No newline at end of file
+
+    /**
+     * Two countdowns are equal if they count with equal configurations, since their frames are equal then,
+     * so a dispatch of a new instance plays the frames warmed up for an equal one.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+
+        final CountdownAnimation that = (CountdownAnimation) obj;
+        return messageConfig.equals(that.messageConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(CountdownAnimation.class, messageConfig);
+    }
+}
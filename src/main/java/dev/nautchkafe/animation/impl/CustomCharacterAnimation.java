@@ -6,6 +6,7 @@ import io.vavr.control.Try;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -14,13 +15,19 @@ import java.util.function.Supplier;
  */
 public final class CustomCharacterAnimation implements KeyframeAnimation {
 
+    private static final String ANIMATION_ID = "custom-character";
+    private static final String BAR_SLOT = "bar";
+
     private final KeyframeAnimationMessageConfig messageConfig;
     private final KeyframeAnimationPlugin plugin;
+    private final KeyframeTemplate template;
 
     public CustomCharacterAnimation(final KeyframeAnimationMessageConfig messageConfig,
                                     final KeyframeAnimationPlugin plugin) {
         this.messageConfig = messageConfig;
         this.plugin = plugin;
+        this.template = KeyframeTemplate.of(messageConfig.titleMessage(),
+                messageConfig.subtitleMessage() + " <" + BAR_SLOT + ">", BAR_SLOT);
     }
 
     /**
@@ -32,9 +39,20 @@ public final class CustomCharacterAnimation implements KeyframeAnimation {
      */
     @Override
     public Supplier<List<Keyframe>> frames(final int cycles) {
-        return () -> List.range(0, cycles)
-                .map(i -> new Keyframe(messageConfig.titleMessage(),
-                        messageConfig.subtitleMessage() + " " + messageConfig.character().repeat(i + 1)));
+        return () -> sequence(cycles).toList();
+    }
+
+    /**
+     * Streams the keyframes for the given number of cycles, generating each frame only when it is played.
+     * Frames fill the template parsed once with a growing bar that shares the characters of the frame before,
+     * so the run is never repeated from scratch.
+     *
+     * @param cycles the number of animation cycles.
+     * @return a streaming sequence of keyframes with a growing character run.
+     */
+    @Override
+    public FrameSequence sequence(final int cycles) {
+        return template.growingBar(cycles, messageConfig.character());
     }
 
     /**
@@ -46,8 +64,9 @@ public final class CustomCharacterAnimation implements KeyframeAnimation {
      */
     private void displayAnimation(Player player, Duration tickDelay, KeyframeRenderer renderer, int cycles) {
         Try.run(() -> {
-            final List<Keyframe> keyframes = frames(cycles).get();
-            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, keyframes, renderer, tickDelay, plugin);
+            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, this, cycles, renderer, tickDelay, plugin)
+                    .named(ANIMATION_ID)
+                    .priority(KeyframePriority.COSMETIC);
 
             dispatcher.dispatch();
         }).onFailure(e -> KeyframeLogger.logInfo("> Error in Custom Character Animation: " + e.getMessage()));
@@ -63,4 +82,22 @@ public final class CustomCharacterAnimation implements KeyframeAnimation {
     public void display(final Player player, final Duration tickDelay) {
         displayAnimation(player, tickDelay, KeyframeRenderer.miniMessageRenderer(), messageConfig.numberOfFrames());
     }
-}
\ No newline at end of file
+
+    /**
+     * Animations growing the same character bar from equal configurations are equal, so their
+     * warmed-up frames are shared by every instance.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+
+        final CustomCharacterAnimation that = (CustomCharacterAnimation) obj;
+        return messageConfig.equals(that.messageConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(CustomCharacterAnimation.class, messageConfig);
+    }
+}
@@ -6,6 +6,7 @@ import io.vavr.control.Try;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -21,6 +22,8 @@ import java.util.function.Supplier;
  */
 public final class LoadingProgressAnimation implements KeyframeAnimation {
 
+    private static final String ANIMATION_ID = "loading-progress";
+
     private final KeyframeAnimationMessageConfig messageConfig;
     private final KeyframeAnimationPlugin plugin;
 
@@ -38,8 +41,18 @@ public final class LoadingProgressAnimation implements KeyframeAnimation {
      */
     @Override
     public Supplier<List<Keyframe>> frames(final int cycles) {
-        return () -> List.range(0, cycles)
-                .map(i -> createKeyframe(i % AnimationCharacter.LOADING_CHARACTERS.size()));
+        return () -> sequence(cycles).toList();
+    }
+
+    /**
+     * Generates the loading keyframes for the given number of cycles directly into a random-access sequence.
+     *
+     * @param cycles the number of cycles to generate keyframes for
+     * @return a {@code FrameSequence} of keyframes representing the animation
+     */
+    @Override
+    public FrameSequence sequence(final int cycles) {
+        return FrameSequence.generate(cycles, i -> createKeyframe(i % AnimationCharacter.LOADING_CHARACTERS.size()));
     }
 
     /**
@@ -67,8 +80,9 @@ public final class LoadingProgressAnimation implements KeyframeAnimation {
      */
     private void displayAnimation(Player player, Duration tickDelay, KeyframeRenderer renderer, int cycles) {
         Try.run(() -> {
-            final List<Keyframe> keyframes = frames(cycles).get();
-            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, keyframes, renderer, tickDelay, plugin);
+            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, this, cycles, renderer, tickDelay, plugin)
+                    .named(ANIMATION_ID)
+                    .priority(KeyframePriority.NORMAL);
 
             dispatcher.dispatch();
         }).onFailure(e -> KeyframeLogger.logInfo("> Error in Custom Character Animation: " + e.getMessage()));
@@ -84,4 +98,22 @@ public final class LoadingProgressAnimation implements KeyframeAnimation {
     public void display(final Player player, final Duration tickDelay) {
         displayAnimation(player, tickDelay, KeyframeRenderer.miniMessageRenderer(), messageConfig.numberOfFrames());
     }
-}
\ No newline at end of file
+
+    /**
+     * Loading animations are equal if their configurations are, as the configuration alone decides
+     * their frames.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+
+        final LoadingProgressAnimation that = (LoadingProgressAnimation) obj;
+        return messageConfig.equals(that.messageConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(LoadingProgressAnimation.class, messageConfig);
+    }
+}
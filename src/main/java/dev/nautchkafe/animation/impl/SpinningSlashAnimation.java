@@ -5,6 +5,7 @@ import io.vavr.collection.List;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 import io.vavr.control.Try;
@@ -14,6 +15,8 @@ import io.vavr.control.Try;
  */
 public final class SpinningSlashAnimation implements KeyframeAnimation {
 
+    private static final String ANIMATION_ID = "spinning-slash";
+
     private final KeyframeAnimationMessageConfig messageConfig;
     private final KeyframeAnimationPlugin plugin;
     private final KeyframeMapper mapper;
@@ -34,9 +37,19 @@ public final class SpinningSlashAnimation implements KeyframeAnimation {
      */
     @Override
     public Supplier<List<Keyframe>> frames(final int cycles) {
-        return () -> List.range(0, cycles)
-                .map(i -> mapper.findOrCache(i, index ->
-                        new Keyframe(messageConfig.titleMessage(), AnimationCharacter.SPINNING_CHARACTERS.get(index))));
+        return () -> sequence(cycles).toList();
+    }
+
+    /**
+     * Generates the spinning keyframes for the given number of cycles directly into a random-access sequence.
+     *
+     * @param cycles The number of cycles the animation should run.
+     * @return A sequence of keyframes for the animation.
+     */
+    @Override
+    public FrameSequence sequence(final int cycles) {
+        return FrameSequence.generate(cycles, i -> mapper.findOrCache(ANIMATION_ID, messageConfig,
+                i % AnimationCharacter.SPINNING_CHARACTERS.size(), this::createKeyframe));
     }
 
     /**
@@ -60,8 +73,9 @@ public final class SpinningSlashAnimation implements KeyframeAnimation {
      */
     private void displayAnimation(Player player, Duration tickDelay, KeyframeRenderer renderer, int cycles) {
         Try.run(() -> {
-            final List<Keyframe> keyframes = frames(cycles).get();
-            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, keyframes, renderer, tickDelay, plugin);
+            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, this, cycles, renderer, tickDelay, plugin)
+                    .named(ANIMATION_ID)
+                    .priority(KeyframePriority.COSMETIC);
 
             dispatcher.dispatch();
         }).onFailure(e -> KeyframeLogger.logInfo("> Error in Custom Character Animation: " + e.getMessage()));
@@ -77,4 +91,22 @@ public final class SpinningSlashAnimation implements KeyframeAnimation {
     public void display(final Player player, final Duration tickDelay) {
         displayAnimation(player, tickDelay, KeyframeRenderer.miniMessageRenderer(), messageConfig.numberOfFrames());
     }
-}
\ No newline at end of file
+
+    /**
+     * Spinners are equal if their configurations are. The mapper only caches their frames, so it takes
+     * no part in equality.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+
+        final SpinningSlashAnimation that = (SpinningSlashAnimation) obj;
+        return messageConfig.equals(that.messageConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(SpinningSlashAnimation.class, messageConfig);
+    }
+}
@@ -6,6 +6,7 @@ import io.vavr.control.Try;
 import org.bukkit.entity.Player;
 
 import java.time.Duration;
+import java.util.Objects;
 import java.util.function.Supplier;
 
 /**
@@ -13,6 +14,8 @@ import java.util.function.Supplier;
  */
 public final class WobbleTextAnimation implements KeyframeAnimation {
 
+    private static final String ANIMATION_ID = "wobble-text";
+
     private final KeyframeAnimationMessageConfig messageConfig;
     private final KeyframeAnimationPlugin plugin;
 
@@ -30,8 +33,18 @@ public final class WobbleTextAnimation implements KeyframeAnimation {
      */
     @Override
     public Supplier<List<Keyframe>> frames(final int cycles) {
-        return () -> List.range(0, cycles)
-                .map(this::createKeyframe);
+        return () -> sequence(cycles).toList();
+    }
+
+    /**
+     * Generates the wobble keyframes for the given number of cycles directly into a random-access sequence.
+     *
+     * @param cycles The number of cycles the animation should run.
+     * @return A sequence of consecutive keyframes for the wobble animation.
+     */
+    @Override
+    public FrameSequence sequence(final int cycles) {
+        return FrameSequence.generate(cycles, this::createKeyframe);
     }
 
     /**
@@ -57,8 +70,9 @@ public final class WobbleTextAnimation implements KeyframeAnimation {
      */
     private void displayAnimation(Player player, Duration tickDelay, KeyframeRenderer renderer, int cycles) {
         Try.run(() -> {
-            final List<Keyframe> keyframes = frames(cycles).get();
-            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, keyframes, renderer, tickDelay, plugin);
+            final KeyframeAnimationDispatcher dispatcher = KeyframeAnimationDispatcher.of(player, this, cycles, renderer, tickDelay, plugin)
+                    .named(ANIMATION_ID)
+                    .priority(KeyframePriority.COSMETIC);
 
             dispatcher.dispatch();
         }).onFailure(e -> KeyframeLogger.logInfo("> Error in Custom Character Animation: " + e.getMessage()));
@@ -74,4 +88,21 @@ public final class WobbleTextAnimation implements KeyframeAnimation {
     public void display(final Player player, final Duration tickDelay) {
         displayAnimation(player, tickDelay, KeyframeRenderer.miniMessageRenderer(), messageConfig.numberOfFrames());
     }
+
+    /**
+     * Wobble animations built from equal configurations show equal frames, so they are equal.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) return true;
+        if (obj == null || obj.getClass() != this.getClass()) return false;
+
+        final WobbleTextAnimation that = (WobbleTextAnimation) obj;
+        return messageConfig.equals(that.messageConfig);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(WobbleTextAnimation.class, messageConfig);
+    }
 }